@@ -3,14 +3,16 @@ package com.revature.rpm;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Configures this app to be a Spring Boot application (implies @component, @EnableAutoConfiguration
- * and @ComponentScan) and a client of the Eureka discovery service. The only method, main, runs
- * this app as a Spring application with passed in parameters
+ * and @ComponentScan) and a client of the Eureka discovery service, with support for scheduled
+ * tasks. The only method, main, runs this app as a Spring application with passed in parameters
  */
 @SpringBootApplication
 @EnableEurekaClient
+@EnableScheduling
 public class RpmAuthServiceApplication {
 
   /**
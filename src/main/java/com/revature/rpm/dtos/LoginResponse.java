@@ -0,0 +1,117 @@
+package com.revature.rpm.dtos;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.Objects;
+
+/**
+ * The body of the response to a successful login or token refresh. Only describes the
+ * authenticated user, when the issued token expires and the refresh token to exchange for the next
+ * token; the token itself is sent in the response header configured by JwtConfig. Written by
+ * LoginResponseSerializer.
+ */
+@JsonSerialize(using = LoginResponseSerializer.class)
+public class LoginResponse {
+
+  private final int id;
+  private final String username;
+  private final String role;
+  private final long expiresAt;
+  private final String refreshToken;
+
+  /**
+   * Constructor for LoginResponse that takes in the authenticated user, the expiration of their
+   * token and their refresh token.
+   *
+   * @param id - ID of the user.
+   * @param username - Username of the user.
+   * @param role - Role of the user.
+   * @param expiresAt - When the issued token expires, in milliseconds since the epoch.
+   * @param refreshToken - The refresh token issued along with the token, or null if there is none.
+   */
+  public LoginResponse(int id, String username, String role, long expiresAt, String refreshToken) {
+    this.id = id;
+    this.username = username;
+    this.role = role;
+    this.expiresAt = expiresAt;
+    this.refreshToken = refreshToken;
+  }
+
+  /**
+   * id getter method.
+   *
+   * @return id associated with this instance of LoginResponse.
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * username getter method.
+   *
+   * @return username associated with this instance of LoginResponse.
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * role getter method.
+   *
+   * @return role associated with this instance of LoginResponse.
+   */
+  public String getRole() {
+    return role;
+  }
+
+  /**
+   * expiresAt getter method.
+   *
+   * @return when the issued token expires, in milliseconds since the epoch.
+   */
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * refreshToken getter method.
+   *
+   * @return refreshToken associated with this instance of LoginResponse.
+   */
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(expiresAt, id, refreshToken, role, username);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof LoginResponse)) {
+      return false;
+    }
+    LoginResponse other = (LoginResponse) obj;
+    return expiresAt == other.expiresAt
+        && id == other.id
+        && Objects.equals(refreshToken, other.refreshToken)
+        && Objects.equals(role, other.role)
+        && Objects.equals(username, other.username);
+  }
+
+  @Override
+  public String toString() {
+    return "LoginResponse [id="
+        + id
+        + ", username="
+        + username
+        + ", role="
+        + role
+        + ", expiresAt="
+        + expiresAt
+        + "]";
+  }
+}
@@ -0,0 +1,46 @@
+package com.revature.rpm.dtos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Writes a LoginResponse field by field, without the introspection of the default bean serializer.
+ * The field names are encoded once and reused by every login. The refresh token is omitted when
+ * there is none.
+ */
+public class LoginResponseSerializer extends StdSerializer<LoginResponse> {
+
+  private static final long serialVersionUID = 2710938451622403791L;
+
+  private static final SerializedString ID = new SerializedString("id");
+  private static final SerializedString USERNAME = new SerializedString("username");
+  private static final SerializedString ROLE = new SerializedString("role");
+  private static final SerializedString EXPIRES_AT = new SerializedString("expiresAt");
+  private static final SerializedString REFRESH_TOKEN = new SerializedString("refreshToken");
+
+  public LoginResponseSerializer() {
+    super(LoginResponse.class);
+  }
+
+  @Override
+  public void serialize(LoginResponse value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeFieldName(ID);
+    gen.writeNumber(value.getId());
+    gen.writeFieldName(USERNAME);
+    gen.writeString(value.getUsername());
+    gen.writeFieldName(ROLE);
+    gen.writeString(value.getRole());
+    gen.writeFieldName(EXPIRES_AT);
+    gen.writeNumber(value.getExpiresAt());
+    if (value.getRefreshToken() != null) {
+      gen.writeFieldName(REFRESH_TOKEN);
+      gen.writeString(value.getRefreshToken());
+    }
+    gen.writeEndObject();
+  }
+}
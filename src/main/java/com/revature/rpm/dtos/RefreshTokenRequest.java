@@ -0,0 +1,51 @@
+package com.revature.rpm.dtos;
+
+import java.util.Objects;
+
+/** Used to store the refresh token extracted from the request body of a token refresh request. */
+public class RefreshTokenRequest {
+
+  private String refreshToken;
+
+  /**
+   * refreshToken getter method.
+   *
+   * @return refreshToken associated with this instance of RefreshTokenRequest.
+   */
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  /**
+   * refreshToken setter method.
+   *
+   * @param refreshToken - New refreshToken.
+   */
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(refreshToken);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof RefreshTokenRequest)) {
+      return false;
+    }
+    RefreshTokenRequest other = (RefreshTokenRequest) obj;
+    return Objects.equals(refreshToken, other.refreshToken);
+  }
+
+  @Override
+  public String toString() {
+    return "RefreshTokenRequest [refreshToken="
+        + (refreshToken == null ? null : "[PROTECTED]")
+        + "]";
+  }
+}
@@ -1,27 +1,59 @@
 package com.revature.rpm.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.revature.rpm.util.EntityCacheConfig;
 import java.io.Serializable;
+import java.util.Locale;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Represents an authenticated user with all of their core information and declares them an entity
  * that can be persisted. Also includes column and relationship annotations for Hibernate to create
- * a table called RPM_USERS that stores AppUsers.
+ * a table called RPM_USERS that stores AppUsers. <br>
+ * <br>
+ * Usernames and email addresses are unique regardless of case. A normalized (lower-case) copy of
+ * each is kept in its own column, backed by a unique index that serves lookups and rejects
+ * duplicates on insert. The normalized columns are derived before every insert and update. <br>
+ * <br>
+ * AppUsers are held in the second-level cache, and the normalized username serves as a (mutable)
+ * natural ID whose resolution to an ID is cached as well.
  */
 @Entity
-@Table(name = "RPM_USERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.USERS_REGION)
+@NaturalIdCache(region = EntityCacheConfig.USERS_BY_USERNAME_REGION)
+@Table(
+    name = "RPM_USERS",
+    uniqueConstraints = {
+      @UniqueConstraint(name = AppUser.UNIQUE_USERNAME, columnNames = "RPM_USER_USERNAME_NORM"),
+      @UniqueConstraint(name = AppUser.UNIQUE_EMAIL, columnNames = "RPM_USER_EMAIL_NORM")
+    })
 public class AppUser implements Serializable {
 
   private static final long serialVersionUID = -2361806217291440694L;
 
+  /** The name of the unique constraint on normalized usernames. */
+  public static final String UNIQUE_USERNAME = "UK_RPM_USERS_USERNAME";
+
+  /** The name of the unique constraint on normalized email addresses. */
+  public static final String UNIQUE_EMAIL = "UK_RPM_USERS_EMAIL";
+
   @Id
   @Column(name = "RPM_USER_ID")
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,6 +83,15 @@ public class AppUser implements Serializable {
   @Column(name = "RPM_USER_ROLE")
   private String role;
 
+  @JsonIgnore
+  @NaturalId(mutable = true)
+  @Column(name = "RPM_USER_USERNAME_NORM", nullable = false)
+  private String normalizedUsername;
+
+  @JsonIgnore
+  @Column(name = "RPM_USER_EMAIL_NORM", nullable = false)
+  private String normalizedEmail;
+
   /** A no-args constructor that sets defaults for a newly created AppUser object. */
   public AppUser() {
     super();
@@ -218,6 +259,27 @@ public class AppUser implements Serializable {
     this.role = role;
   }
 
+  /**
+   * Derives the normalized username and email address columns. Invoked by the persistence
+   * provider before the user is inserted or updated.
+   */
+  @PrePersist
+  @PreUpdate
+  void normalize() {
+    normalizedUsername = normalize(username);
+    normalizedEmail = normalize(email);
+  }
+
+  /**
+   * Normalizes a username or email address for lookup and uniqueness checks.
+   *
+   * @param value - The username or email address to normalize.
+   * @return The value in lower case, or null if value is null.
+   */
+  public static String normalize(String value) {
+    return value == null ? null : value.toLowerCase(Locale.ROOT);
+  }
+
   /**
    * Overridden method allowing for hash codes to be genreated for AppUser objects.
    *
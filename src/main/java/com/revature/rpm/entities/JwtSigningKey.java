@@ -0,0 +1,233 @@
+package com.revature.rpm.entities;
+
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Represents a key pair used to sign JWTs when an asymmetric signing algorithm is configured, and
+ * declares it an entity that can be persisted in a table called RPM_JWT_KEYS, which is shared by
+ * every node. The private key is stored encrypted. <br>
+ * <br>
+ * A key is published as soon as it is created, signs tokens from activatesAt until retiresAt, and
+ * is still published (so that the tokens it signed can be verified) until expiresAt.
+ */
+@Entity
+@Table(name = "RPM_JWT_KEYS")
+public class JwtSigningKey {
+
+  @Id
+  @Column(name = "RPM_JWT_KEY_ID", length = 32)
+  private String kid;
+
+  @Column(name = "RPM_JWT_KEY_ALG", nullable = false, length = 8)
+  private String algorithm;
+
+  @Column(name = "RPM_JWT_KEY_PUBLIC", nullable = false, length = 1024)
+  private String publicKey;
+
+  @Column(name = "RPM_JWT_KEY_PRIVATE", nullable = false, length = 4096)
+  private String privateKey;
+
+  @Column(name = "RPM_JWT_KEY_ACTIVATES", nullable = false)
+  private long activatesAt;
+
+  @Column(name = "RPM_JWT_KEY_RETIRES", nullable = false)
+  private long retiresAt;
+
+  @Column(name = "RPM_JWT_KEY_EXPIRES", nullable = false)
+  private long expiresAt;
+
+  public JwtSigningKey() {
+    super();
+  }
+
+  /**
+   * Constructor for JwtSigningKey that takes in every field.
+   *
+   * @param kid - The ID of the key, as carried in the header of the JWTs it signs.
+   * @param algorithm - The JWA name of the signing algorithm (e.g. RS256).
+   * @param publicKey - The Base64 encoded X.509 public key.
+   * @param privateKey - The Base64 encoded, encrypted PKCS#8 private key.
+   * @param activatesAt - When the key starts signing, in epoch milliseconds.
+   * @param retiresAt - When the key stops signing, in epoch milliseconds.
+   * @param expiresAt - When the key stops being published, in epoch milliseconds.
+   */
+  public JwtSigningKey(
+      String kid,
+      String algorithm,
+      String publicKey,
+      String privateKey,
+      long activatesAt,
+      long retiresAt,
+      long expiresAt) {
+    super();
+    this.kid = kid;
+    this.algorithm = algorithm;
+    this.publicKey = publicKey;
+    this.privateKey = privateKey;
+    this.activatesAt = activatesAt;
+    this.retiresAt = retiresAt;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * kid getter method.
+   *
+   * @return kid associated with this instance of JwtSigningKey.
+   */
+  public String getKid() {
+    return kid;
+  }
+
+  /**
+   * kid setter method.
+   *
+   * @param kid - New kid.
+   */
+  public void setKid(String kid) {
+    this.kid = kid;
+  }
+
+  /**
+   * algorithm getter method.
+   *
+   * @return algorithm associated with this instance of JwtSigningKey.
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * algorithm setter method.
+   *
+   * @param algorithm - New algorithm.
+   */
+  public void setAlgorithm(String algorithm) {
+    this.algorithm = algorithm;
+  }
+
+  /**
+   * publicKey getter method.
+   *
+   * @return publicKey associated with this instance of JwtSigningKey.
+   */
+  public String getPublicKey() {
+    return publicKey;
+  }
+
+  /**
+   * publicKey setter method.
+   *
+   * @param publicKey - New publicKey.
+   */
+  public void setPublicKey(String publicKey) {
+    this.publicKey = publicKey;
+  }
+
+  /**
+   * privateKey getter method.
+   *
+   * @return privateKey associated with this instance of JwtSigningKey.
+   */
+  public String getPrivateKey() {
+    return privateKey;
+  }
+
+  /**
+   * privateKey setter method.
+   *
+   * @param privateKey - New privateKey.
+   */
+  public void setPrivateKey(String privateKey) {
+    this.privateKey = privateKey;
+  }
+
+  /**
+   * activatesAt getter method.
+   *
+   * @return activatesAt associated with this instance of JwtSigningKey.
+   */
+  public long getActivatesAt() {
+    return activatesAt;
+  }
+
+  /**
+   * activatesAt setter method.
+   *
+   * @param activatesAt - New activatesAt.
+   */
+  public void setActivatesAt(long activatesAt) {
+    this.activatesAt = activatesAt;
+  }
+
+  /**
+   * retiresAt getter method.
+   *
+   * @return retiresAt associated with this instance of JwtSigningKey.
+   */
+  public long getRetiresAt() {
+    return retiresAt;
+  }
+
+  /**
+   * retiresAt setter method.
+   *
+   * @param retiresAt - New retiresAt.
+   */
+  public void setRetiresAt(long retiresAt) {
+    this.retiresAt = retiresAt;
+  }
+
+  /**
+   * expiresAt getter method.
+   *
+   * @return expiresAt associated with this instance of JwtSigningKey.
+   */
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * expiresAt setter method.
+   *
+   * @param expiresAt - New expiresAt.
+   */
+  public void setExpiresAt(long expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kid);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof JwtSigningKey)) {
+      return false;
+    }
+    JwtSigningKey other = (JwtSigningKey) obj;
+    return Objects.equals(kid, other.kid);
+  }
+
+  @Override
+  public String toString() {
+    return "JwtSigningKey [kid="
+        + kid
+        + ", algorithm="
+        + algorithm
+        + ", activatesAt="
+        + activatesAt
+        + ", retiresAt="
+        + retiresAt
+        + ", expiresAt="
+        + expiresAt
+        + "]";
+  }
+}
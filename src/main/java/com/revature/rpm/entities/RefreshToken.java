@@ -0,0 +1,278 @@
+package com.revature.rpm.entities;
+
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Represents a refresh token issued to a user and declares it an entity that can be persisted in a
+ * table called RPM_REFRESH_TOKENS. Only the SHA-256 digest of a token is stored, so the table can
+ * not be used to obtain valid tokens. <br>
+ * <br>
+ * Every token belongs to a family, which starts with the token issued at login. Each time a token
+ * is used it is marked as rotated and a new token of the same family is issued. A family expires at
+ * a fixed time regardless of how often its tokens are rotated.
+ */
+@Entity
+@Table(
+    name = "RPM_REFRESH_TOKENS",
+    uniqueConstraints = {
+      @UniqueConstraint(name = "UK_RPM_REFRESH_TOKENS_HASH", columnNames = "RPM_REFRESH_TOKEN_HASH")
+    },
+    indexes = {
+      @Index(name = "IX_RPM_REFRESH_TOKENS_FAMILY", columnList = "RPM_REFRESH_TOKEN_FAMILY"),
+      @Index(name = "IX_RPM_REFRESH_TOKENS_USER", columnList = "RPM_REFRESH_TOKEN_USER_ID")
+    })
+public class RefreshToken {
+
+  @Id
+  @Column(name = "RPM_REFRESH_TOKEN_ID")
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "RPM_REFRESH_TOKEN_HASH", nullable = false, length = 64)
+  private String tokenHash;
+
+  @Column(name = "RPM_REFRESH_TOKEN_FAMILY", nullable = false, length = 36)
+  private String family;
+
+  @Column(name = "RPM_REFRESH_TOKEN_USER_ID", nullable = false)
+  private Integer userId;
+
+  @Column(name = "RPM_REFRESH_TOKEN_ISSUED", nullable = false)
+  private long issuedAt;
+
+  @Column(name = "RPM_REFRESH_TOKEN_EXPIRES", nullable = false)
+  private long expiresAt;
+
+  @Column(name = "RPM_REFRESH_TOKEN_FAMILY_EXPIRES", nullable = false)
+  private long familyExpiresAt;
+
+  @Column(name = "RPM_REFRESH_TOKEN_ROTATED", nullable = false)
+  private boolean rotated;
+
+  public RefreshToken() {
+    super();
+  }
+
+  /**
+   * Constructor for RefreshToken that takes in every field but the ID. New tokens are not rotated.
+   *
+   * @param tokenHash - The SHA-256 digest of the token.
+   * @param family - The family of the token.
+   * @param userId - The ID of the user the token was issued to.
+   * @param issuedAt - When the token was issued, in milliseconds since the epoch.
+   * @param expiresAt - When the token expires, in milliseconds since the epoch.
+   * @param familyExpiresAt - When every token of the family expires, in milliseconds since the
+   *     epoch.
+   */
+  public RefreshToken(
+      String tokenHash,
+      String family,
+      Integer userId,
+      long issuedAt,
+      long expiresAt,
+      long familyExpiresAt) {
+    super();
+    this.tokenHash = tokenHash;
+    this.family = family;
+    this.userId = userId;
+    this.issuedAt = issuedAt;
+    this.expiresAt = expiresAt;
+    this.familyExpiresAt = familyExpiresAt;
+  }
+
+  /**
+   * id getter method.
+   *
+   * @return id associated with this instance of RefreshToken.
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * id setter method.
+   *
+   * @param id - New id.
+   */
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  /**
+   * tokenHash getter method.
+   *
+   * @return tokenHash associated with this instance of RefreshToken.
+   */
+  public String getTokenHash() {
+    return tokenHash;
+  }
+
+  /**
+   * tokenHash setter method.
+   *
+   * @param tokenHash - New tokenHash.
+   */
+  public void setTokenHash(String tokenHash) {
+    this.tokenHash = tokenHash;
+  }
+
+  /**
+   * family getter method.
+   *
+   * @return family associated with this instance of RefreshToken.
+   */
+  public String getFamily() {
+    return family;
+  }
+
+  /**
+   * family setter method.
+   *
+   * @param family - New family.
+   */
+  public void setFamily(String family) {
+    this.family = family;
+  }
+
+  /**
+   * userId getter method.
+   *
+   * @return userId associated with this instance of RefreshToken.
+   */
+  public Integer getUserId() {
+    return userId;
+  }
+
+  /**
+   * userId setter method.
+   *
+   * @param userId - New userId.
+   */
+  public void setUserId(Integer userId) {
+    this.userId = userId;
+  }
+
+  /**
+   * issuedAt getter method.
+   *
+   * @return issuedAt associated with this instance of RefreshToken.
+   */
+  public long getIssuedAt() {
+    return issuedAt;
+  }
+
+  /**
+   * issuedAt setter method.
+   *
+   * @param issuedAt - New issuedAt.
+   */
+  public void setIssuedAt(long issuedAt) {
+    this.issuedAt = issuedAt;
+  }
+
+  /**
+   * expiresAt getter method.
+   *
+   * @return expiresAt associated with this instance of RefreshToken.
+   */
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * expiresAt setter method.
+   *
+   * @param expiresAt - New expiresAt.
+   */
+  public void setExpiresAt(long expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * familyExpiresAt getter method.
+   *
+   * @return familyExpiresAt associated with this instance of RefreshToken.
+   */
+  public long getFamilyExpiresAt() {
+    return familyExpiresAt;
+  }
+
+  /**
+   * familyExpiresAt setter method.
+   *
+   * @param familyExpiresAt - New familyExpiresAt.
+   */
+  public void setFamilyExpiresAt(long familyExpiresAt) {
+    this.familyExpiresAt = familyExpiresAt;
+  }
+
+  /**
+   * rotated getter method.
+   *
+   * @return True if the token has already been exchanged for a new one. Otherwise, false.
+   */
+  public boolean isRotated() {
+    return rotated;
+  }
+
+  /**
+   * rotated setter method.
+   *
+   * @param rotated - New rotated.
+   */
+  public void setRotated(boolean rotated) {
+    this.rotated = rotated;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        expiresAt, family, familyExpiresAt, id, issuedAt, rotated, tokenHash, userId);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof RefreshToken)) {
+      return false;
+    }
+    RefreshToken other = (RefreshToken) obj;
+    return expiresAt == other.expiresAt
+        && Objects.equals(family, other.family)
+        && familyExpiresAt == other.familyExpiresAt
+        && Objects.equals(id, other.id)
+        && issuedAt == other.issuedAt
+        && rotated == other.rotated
+        && Objects.equals(tokenHash, other.tokenHash)
+        && Objects.equals(userId, other.userId);
+  }
+
+  @Override
+  public String toString() {
+    return "RefreshToken [id="
+        + id
+        + ", family="
+        + family
+        + ", userId="
+        + userId
+        + ", issuedAt="
+        + issuedAt
+        + ", expiresAt="
+        + expiresAt
+        + ", familyExpiresAt="
+        + familyExpiresAt
+        + ", rotated="
+        + rotated
+        + "]";
+  }
+}
@@ -0,0 +1,43 @@
+package com.revature.rpm.exceptions;
+
+/**
+ * Extends RuntimeException and allows for a custom exception to be thrown when a refresh token is
+ * missing, unknown, expired or has already been used.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+  private static final long serialVersionUID = 4823650713289904217L;
+
+  private final boolean reused;
+
+  /**
+   * A constructor that creates an InvalidRefreshTokenException by passing a custom message to the
+   * parent's appropriate constructor.
+   *
+   * @param message - A custom message to print with the exception.
+   */
+  public InvalidRefreshTokenException(String message) {
+    this(message, false);
+  }
+
+  /**
+   * A constructor that creates an InvalidRefreshTokenException by passing a custom message to the
+   * parent's appropriate constructor.
+   *
+   * @param message - A custom message to print with the exception.
+   * @param reused - Whether the token had already been exchanged for another.
+   */
+  public InvalidRefreshTokenException(String message, boolean reused) {
+    super(message);
+    this.reused = reused;
+  }
+
+  /**
+   * reused getter method.
+   *
+   * @return True if the token had already been exchanged for another. Otherwise, false.
+   */
+  public boolean isReused() {
+    return reused;
+  }
+}
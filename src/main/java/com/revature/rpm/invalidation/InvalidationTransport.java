@@ -0,0 +1,24 @@
+package com.revature.rpm.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries UserChangedEvents to every node of the auth-service, including the node that published
+ * them. Implementations are selected with rpm.invalidation.transport.
+ */
+public interface InvalidationTransport {
+
+  /**
+   * Publishes an event to every node.
+   *
+   * @param event - The event to publish.
+   */
+  void publish(UserChangedEvent event);
+
+  /**
+   * Registers a listener that is passed every event received by this node.
+   *
+   * @param listener - The listener to register.
+   */
+  void subscribe(Consumer<UserChangedEvent> listener);
+}
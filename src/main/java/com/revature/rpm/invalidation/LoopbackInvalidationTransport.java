@@ -0,0 +1,65 @@
+package com.revature.rpm.invalidation;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers events to the listeners of this node only, synchronously. Used when a single node is
+ * running, in tests, and as the local half of transports that reach other nodes. This is the
+ * default transport (rpm.invalidation.transport=loopback).
+ */
+@Component
+@ConditionalOnProperty(
+    name = "rpm.invalidation.transport",
+    havingValue = "loopback",
+    matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoopbackInvalidationTransport.class);
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final List<Consumer<UserChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(UserChangedEvent event) {
+    event.setOrigin(nodeId);
+    deliver(event);
+  }
+
+  @Override
+  public void subscribe(Consumer<UserChangedEvent> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * nodeId getter method.
+   *
+   * @return The ID that identifies this node as the origin of the events it publishes.
+   */
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Passes an event to every listener of this node. A failing listener does not prevent the others
+   * from receiving the event.
+   *
+   * @param event - The event to deliver.
+   */
+  protected void deliver(UserChangedEvent event) {
+    for (Consumer<UserChangedEvent> listener : listeners) {
+      try {
+        listener.accept(event);
+      } catch (RuntimeException e) {
+        logger.warn("Listener failed to handle {}: {}", event, e.toString());
+      }
+    }
+  }
+}
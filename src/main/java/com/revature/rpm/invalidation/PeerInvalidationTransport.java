@@ -0,0 +1,135 @@
+package com.revature.rpm.invalidation;
+
+import com.revature.rpm.security.config.ZuulConfig;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Delivers events to the listeners of this node and POSTs them to the /invalidations endpoint of
+ * every other instance of this service registered with the discovery service
+ * (rpm.invalidation.transport=peers). Requests carry the gateway header, so that they are accepted
+ * by the GatewaySubversionFilter of the receiving node. <br>
+ * <br>
+ * Events are sent by a single background thread, so publishing never waits on the network. If
+ * the send queue is full or a peer cannot be reached the event is dropped for that peer and a
+ * warning is logged; the peer's caches then catch up once their entries expire.
+ */
+@Component
+@ConditionalOnProperty(name = "rpm.invalidation.transport", havingValue = "peers")
+public class PeerInvalidationTransport extends LoopbackInvalidationTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger(PeerInvalidationTransport.class);
+
+  /** The path of the endpoint that receives events from other nodes. */
+  public static final String ENDPOINT = "/invalidations";
+
+  @Value("${spring.application.name}")
+  private String serviceId;
+
+  private final DiscoveryClient discoveryClient;
+  private final ZuulConfig zuulConfig;
+  private final RestTemplate restTemplate;
+  private final ThreadPoolExecutor sender;
+
+  /**
+   * Constructor for PeerInvalidationTransport.
+   *
+   * @param discoveryClient - Lists the instances of this service.
+   * @param zuulConfig - Provides the gateway header sent along with every event. Lazy, as it is
+   *     declared by SecurityCredentialsConfig, which itself depends on it.
+   * @param timeout - The connect and read timeout of requests to peers, in milliseconds.
+   * @param queueCapacity - The maximum number of events waiting to be sent.
+   */
+  @Autowired
+  public PeerInvalidationTransport(
+      DiscoveryClient discoveryClient,
+      @Lazy ZuulConfig zuulConfig,
+      @Value("${rpm.invalidation.timeout:1000}") int timeout,
+      @Value("${rpm.invalidation.queue-capacity:1024}") int queueCapacity) {
+
+    this.discoveryClient = discoveryClient;
+    this.zuulConfig = zuulConfig;
+
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(timeout);
+    requestFactory.setReadTimeout(timeout);
+    this.restTemplate = new RestTemplate(requestFactory);
+
+    this.sender =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+              Thread thread = new Thread(r, "invalidation-sender");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @Override
+  public void publish(UserChangedEvent event) {
+
+    super.publish(event);
+
+    try {
+      sender.execute(() -> send(event));
+    } catch (RejectedExecutionException ree) {
+      logger.warn("Invalidation queue is full, {} was not sent to peers", event);
+    }
+  }
+
+  /**
+   * Delivers an event received from another node to the listeners of this node. Events published
+   * by this node are ignored, as they were delivered locally when published.
+   *
+   * @param event - The event received.
+   */
+  public void receive(UserChangedEvent event) {
+    if (!getNodeId().equals(event.getOrigin())) {
+      deliver(event);
+    }
+  }
+
+  /** Stops sending events once the application context is closed. */
+  @PreDestroy
+  public void shutdown() {
+    sender.shutdown();
+  }
+
+  private void send(UserChangedEvent event) {
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(zuulConfig.getHeader(), zuulConfig.getKeyring().getCurrent());
+    HttpEntity<UserChangedEvent> request = new HttpEntity<>(event, headers);
+
+    List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+    for (ServiceInstance instance : instances) {
+      try {
+        restTemplate.postForLocation(instance.getUri().resolve(ENDPOINT), request);
+      } catch (RestClientException e) {
+        logger.warn("Could not send {} to {}: {}", event, instance.getUri(), e.toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.revature.rpm.invalidation;
+
+import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.util.TokenRevocationList;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+import com.revature.rpm.services.AvailabilityIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts what this node has cached about a user whenever a UserChangedEvent is received, whichever
+ * node the change was made on: <br>
+ * - The user from the Hibernate second-level cache, along with the username resolutions or the
+ *   cached queries if the username or email address was changed.<br>
+ * - The user from the authentication provider's user cache.<br>
+ * - The user's verified tokens, if their role or username was changed or they were deleted.<br>
+ * - New usernames and email addresses are added to the availability filters.<br>
+ * <br>
+ * In the same cases as the verified tokens are evicted, every token issued to the user until the
+ * event was received is revoked, as the role or username it claims is no longer accurate. A single
+ * revoked token (TOKEN_REVOKED) is added to the revocation list, and nothing is evicted.
+ */
+@Component
+public class UserCacheInvalidator {
+
+  private UserRepository repo;
+  private UserCache userCache;
+  private VerifiedTokenCache tokenCache;
+  private TokenRevocationList revocationList;
+  private AvailabilityIndex availabilityIndex;
+
+  /**
+   * Constructor for UserCacheInvalidator, which subscribes it to the invalidation transport.
+   *
+   * @param transport - The transport that events are received from.
+   * @param repo - Evicts users from the second-level cache.
+   * @param userCache - The authentication provider's user cache.
+   * @param tokenCache - The verified token cache.
+   * @param revocationList - The list of revoked tokens.
+   * @param availabilityIndex - The availability filters.
+   */
+  @Autowired
+  public UserCacheInvalidator(
+      InvalidationTransport transport,
+      UserRepository repo,
+      UserCache userCache,
+      VerifiedTokenCache tokenCache,
+      TokenRevocationList revocationList,
+      AvailabilityIndex availabilityIndex) {
+    this.repo = repo;
+    this.userCache = userCache;
+    this.tokenCache = tokenCache;
+    this.revocationList = revocationList;
+    this.availabilityIndex = availabilityIndex;
+    transport.subscribe(this::invalidate);
+  }
+
+  /**
+   * Evicts the cached state of the user described by an event.
+   *
+   * @param event - The change to the user.
+   */
+  public void invalidate(UserChangedEvent event) {
+
+    if (event.getType() == UserChangeType.TOKEN_REVOKED) {
+      revocationList.revoke(event.getTokenId(), event.getTokenExpiresAt());
+      return;
+    }
+
+    if (event.getUpdatedUsername() != null || event.getUpdatedEmail() != null) {
+      availabilityIndex.add(event.getUpdatedUsername(), event.getUpdatedEmail());
+    }
+
+    if (event.getType() == UserChangeType.CREATED) {
+      return;
+    }
+
+    if (event.getType() != UserChangeType.UPDATED || event.getUpdatedUsername() != null) {
+      revocationList.revokeUser(
+          event.getUsername(), Math.max(event.getTimestamp(), System.currentTimeMillis()));
+      tokenCache.invalidateUser(event.getUsername());
+    }
+
+    boolean deleted = event.getType() == UserChangeType.DELETED;
+    repo.evictFromCache(
+        event.getUserId(),
+        deleted || event.getUpdatedUsername() != null,
+        deleted || event.getUpdatedEmail() != null);
+    userCache.removeUserFromCache(event.getUsername());
+
+    if (deleted
+        || event.getUpdatedUsername() != null
+        || event.getUpdatedEmail() != null) {
+      availabilityIndex.remove();
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.revature.rpm.invalidation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Relays the UserChangedEvents published by UserService to the invalidation transport once the
+ * transaction that made the change commits. Changes that are rolled back are never relayed, and no
+ * node can re-cache the state from before the change after receiving the event.
+ */
+@Component
+public class UserChangeRelay {
+
+  private InvalidationTransport transport;
+
+  @Autowired
+  public UserChangeRelay(InvalidationTransport transport) {
+    this.transport = transport;
+  }
+
+  /**
+   * Publishes a committed change to every node. Events published outside of a transaction are
+   * relayed immediately.
+   *
+   * @param event - The committed change.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    transport.publish(event);
+  }
+}
@@ -0,0 +1,20 @@
+package com.revature.rpm.invalidation;
+
+/** The kinds of change to a user that invalidate what other nodes may have cached about them. */
+public enum UserChangeType {
+
+  /** A user was registered. */
+  CREATED,
+
+  /** A user's details (e.g. username, email address or password) were updated. */
+  UPDATED,
+
+  /** A user's role was changed, along with any other details. */
+  ROLE_CHANGED,
+
+  /** A user was deleted. */
+  DELETED,
+
+  /** One of a user's tokens was revoked, e.g. upon logout. The user itself is unchanged. */
+  TOKEN_REVOKED
+}
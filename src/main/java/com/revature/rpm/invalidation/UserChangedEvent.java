@@ -0,0 +1,224 @@
+package com.revature.rpm.invalidation;
+
+import java.io.Serializable;
+
+/**
+ * Describes a committed change to a user. Published by UserService within the transaction that
+ * makes the change, relayed to every node once the transaction commits, and used by each node to
+ * evict what it has cached about the user. Also describes the revocation of one of the user's
+ * tokens (e.g. upon logout), in which case the ID and expiration of the token are set.
+ */
+public class UserChangedEvent implements Serializable {
+
+  private static final long serialVersionUID = 4185319260734612953L;
+
+  private UserChangeType type;
+  private Integer userId;
+  private String username;
+  private String updatedUsername;
+  private String updatedEmail;
+  private String tokenId;
+  private long tokenExpiresAt;
+  private String origin;
+  private long timestamp;
+
+  public UserChangedEvent() {}
+
+  /**
+   * Constructor for UserChangedEvent that takes in the type of change and the user changed.
+   *
+   * @param type - The type of change.
+   * @param userId - The ID of the user.
+   * @param username - The username of the user before the change.
+   * @param updatedUsername - The username of the user after the change, or null if unchanged.
+   * @param updatedEmail - The email address of the user after the change, or null if unchanged.
+   */
+  public UserChangedEvent(
+      UserChangeType type,
+      Integer userId,
+      String username,
+      String updatedUsername,
+      String updatedEmail) {
+    this.type = type;
+    this.userId = userId;
+    this.username = username;
+    this.updatedUsername = updatedUsername;
+    this.updatedEmail = updatedEmail;
+    this.timestamp = System.currentTimeMillis();
+  }
+
+  /**
+   * type getter method.
+   *
+   * @return type associated with this instance of UserChangedEvent.
+   */
+  public UserChangeType getType() {
+    return type;
+  }
+
+  /**
+   * type setter method.
+   *
+   * @param type - New type.
+   */
+  public void setType(UserChangeType type) {
+    this.type = type;
+  }
+
+  /**
+   * userId getter method.
+   *
+   * @return userId associated with this instance of UserChangedEvent.
+   */
+  public Integer getUserId() {
+    return userId;
+  }
+
+  /**
+   * userId setter method.
+   *
+   * @param userId - New userId.
+   */
+  public void setUserId(Integer userId) {
+    this.userId = userId;
+  }
+
+  /**
+   * username getter method.
+   *
+   * @return username associated with this instance of UserChangedEvent.
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * username setter method.
+   *
+   * @param username - New username.
+   */
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  /**
+   * updatedUsername getter method.
+   *
+   * @return updatedUsername associated with this instance of UserChangedEvent.
+   */
+  public String getUpdatedUsername() {
+    return updatedUsername;
+  }
+
+  /**
+   * updatedUsername setter method.
+   *
+   * @param updatedUsername - New updatedUsername.
+   */
+  public void setUpdatedUsername(String updatedUsername) {
+    this.updatedUsername = updatedUsername;
+  }
+
+  /**
+   * updatedEmail getter method.
+   *
+   * @return updatedEmail associated with this instance of UserChangedEvent.
+   */
+  public String getUpdatedEmail() {
+    return updatedEmail;
+  }
+
+  /**
+   * updatedEmail setter method.
+   *
+   * @param updatedEmail - New updatedEmail.
+   */
+  public void setUpdatedEmail(String updatedEmail) {
+    this.updatedEmail = updatedEmail;
+  }
+
+  /**
+   * tokenId getter method.
+   *
+   * @return The ID (jti claim) of the revoked token, or null if no token was revoked.
+   */
+  public String getTokenId() {
+    return tokenId;
+  }
+
+  /**
+   * tokenId setter method.
+   *
+   * @param tokenId - New tokenId.
+   */
+  public void setTokenId(String tokenId) {
+    this.tokenId = tokenId;
+  }
+
+  /**
+   * tokenExpiresAt getter method.
+   *
+   * @return When the revoked token expires, in epoch milliseconds.
+   */
+  public long getTokenExpiresAt() {
+    return tokenExpiresAt;
+  }
+
+  /**
+   * tokenExpiresAt setter method.
+   *
+   * @param tokenExpiresAt - New tokenExpiresAt.
+   */
+  public void setTokenExpiresAt(long tokenExpiresAt) {
+    this.tokenExpiresAt = tokenExpiresAt;
+  }
+
+  /**
+   * origin getter method.
+   *
+   * @return The ID of the node that published this event.
+   */
+  public String getOrigin() {
+    return origin;
+  }
+
+  /**
+   * origin setter method.
+   *
+   * @param origin - New origin.
+   */
+  public void setOrigin(String origin) {
+    this.origin = origin;
+  }
+
+  /**
+   * timestamp getter method.
+   *
+   * @return timestamp associated with this instance of UserChangedEvent.
+   */
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * timestamp setter method.
+   *
+   * @param timestamp - New timestamp.
+   */
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "UserChangedEvent [type="
+        + type
+        + ", userId="
+        + userId
+        + ", username="
+        + username
+        + ", origin="
+        + origin
+        + "]";
+  }
+}
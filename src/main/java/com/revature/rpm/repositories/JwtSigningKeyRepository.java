@@ -0,0 +1,22 @@
+package com.revature.rpm.repositories;
+
+import com.revature.rpm.entities.JwtSigningKey;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Manages the key pairs used to sign JWTs, which are shared by every node. */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+  List<JwtSigningKey> findByExpiresAtGreaterThanOrderByActivatesAtAsc(long now);
+
+  @Transactional
+  @Modifying
+  @Query("delete from JwtSigningKey k where k.expiresAt <= :now")
+  int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,38 @@
+package com.revature.rpm.repositories;
+
+import com.revature.rpm.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Manages the refresh tokens issued to users. */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  RefreshToken findByTokenHash(String tokenHash);
+
+  /**
+   * Marks a token as rotated, unless it already was. As the check and the update are made by a
+   * single statement, at most one of any number of concurrent callers succeeds.
+   *
+   * @param id - The ID of the token.
+   * @return 1 if the token was marked by this call. Otherwise, 0.
+   */
+  @Modifying
+  @Query("update RefreshToken t set t.rotated = true where t.id = :id and t.rotated = false")
+  int markRotated(@Param("id") Long id);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.family = :family")
+  int deleteFamily(@Param("family") String family);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.userId = :userId")
+  int deleteByUser(@Param("userId") Integer userId);
+
+  @Modifying
+  @Query("delete from RefreshToken t where t.expiresAt < :now")
+  int deleteExpired(@Param("now") long now);
+}
@@ -1,7 +1,13 @@
 package com.revature.rpm.repositories;
 
 import com.revature.rpm.entities.AppUser;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,11 +15,91 @@ import org.springframework.stereotype.Repository;
  * CRUD functionality methods to be selectively exposed.
  */
 @Repository
-public interface UserRepository extends JpaRepository<AppUser, Integer> {
+public interface UserRepository extends JpaRepository<AppUser, Integer>, UserRepositoryCustom {
 
-  AppUser findUserByUsername(String username);
-
-  AppUser findUserByEmail(String email);
+  @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+  AppUser findUserByNormalizedEmail(String normalizedEmail);
 
   AppUser findUserByUsernameAndPassword(String username, String password);
+
+  boolean existsByNormalizedUsername(String normalizedUsername);
+
+  boolean existsByNormalizedEmail(String normalizedEmail);
+
+  /**
+   * Fetches the user with the provided username, regardless of case.
+   *
+   * @param username - The username of the user to fetch.
+   * @return The user with the provided username, or null if there is none.
+   */
+  default AppUser findUserByUsername(String username) {
+    return findUserByNormalizedUsername(AppUser.normalize(username));
+  }
+
+  /**
+   * Fetches the user with the provided email address, regardless of case.
+   *
+   * @param email - The email address of the user to fetch.
+   * @return The user with the provided email address, or null if there is none.
+   */
+  default AppUser findUserByEmail(String email) {
+    return findUserByNormalizedEmail(AppUser.normalize(email));
+  }
+
+  /**
+   * Checks whether a user with the provided username exists, regardless of case.
+   *
+   * @param username - The username to check.
+   * @return True if a user with the provided username exists. Otherwise, false.
+   */
+  default boolean existsByUsername(String username) {
+    return existsByNormalizedUsername(AppUser.normalize(username));
+  }
+
+  /**
+   * Checks whether a user with the provided email address exists, regardless of case.
+   *
+   * @param email - The email address to check.
+   * @return True if a user with the provided email address exists. Otherwise, false.
+   */
+  default boolean existsByEmail(String email) {
+    return existsByNormalizedEmail(AppUser.normalize(email));
+  }
+
+  /**
+   * Fetches a slice of users whose ID is greater than the provided ID, allowing deep pages to be
+   * read with an index seek rather than by skipping over every preceding row.
+   *
+   * @param id - The ID of the last user of the previous slice.
+   * @param pageable - The size of the slice; the offset and sort are ignored.
+   * @return The users following the provided ID, in order of ID.
+   */
+  Slice<AppUser> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+
+  /**
+   * Streams all users in order of ID. The stream must be consumed and closed within a transaction.
+   *
+   * @return A stream over all registered users.
+   */
+  @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "256"))
+  @Query("select u from AppUser u order by u.id")
+  Stream<AppUser> streamAllBy();
+
+  /**
+   * Streams the normalized username and email address of every user, without loading the users
+   * themselves. The stream must be consumed and closed within a transaction.
+   *
+   * @return A stream over the identifiers of all registered users.
+   */
+  @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1024"))
+  @Query("select u.normalizedUsername as username, u.normalizedEmail as email from AppUser u")
+  Stream<UserIdentifiers> streamIdentifiersBy();
+
+  /** A projection of the unique identifiers of a user. */
+  interface UserIdentifiers {
+
+    String getUsername();
+
+    String getEmail();
+  }
 }
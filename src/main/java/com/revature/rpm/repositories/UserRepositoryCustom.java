@@ -0,0 +1,37 @@
+package com.revature.rpm.repositories;
+
+import com.revature.rpm.entities.AppUser;
+
+/**
+ * Repository methods that are implemented against Hibernate directly, in order to make use of its
+ * natural ID and second-level caches.
+ */
+public interface UserRepositoryCustom {
+
+  /**
+   * Fetches the user with the provided normalized username, which is its natural ID. Resolved
+   * through the natural ID cache and the entity cache before the database is queried.
+   *
+   * @param normalizedUsername - The normalized username of the user to fetch.
+   * @return The user with the provided username, or null if there is none.
+   */
+  AppUser findUserByNormalizedUsername(String normalizedUsername);
+
+  /**
+   * Evicts a user from the second-level cache after it was changed on another node. Changes made
+   * on this node keep the caches consistent by themselves (READ_WRITE entity and natural ID caches,
+   * and the update timestamps of the query cache), but other nodes only learn of a change through
+   * this eviction. <br>
+   * <br>
+   * Hibernate can only evict natural ID resolutions and query results by region, so they are only
+   * evicted if the value they are keyed by changed, which is rare compared to other updates (e.g.
+   * the password re-hashed on login).
+   *
+   * @param id - The ID of the user to evict.
+   * @param usernameChanged - Whether the username changed or the user was deleted, which evicts
+   *     the username resolutions.
+   * @param emailChanged - Whether the email address changed or the user was deleted, which evicts
+   *     the cached query results (i.e. the email address lookups).
+   */
+  void evictFromCache(Integer id, boolean usernameChanged, boolean emailChanged);
+}
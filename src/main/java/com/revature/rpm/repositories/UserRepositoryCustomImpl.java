@@ -0,0 +1,35 @@
+package com.revature.rpm.repositories;
+
+import com.revature.rpm.entities.AppUser;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Implements the UserRepositoryCustom methods of UserRepository using the Hibernate API. */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public AppUser findUserByNormalizedUsername(String normalizedUsername) {
+    return entityManager
+        .unwrap(Session.class)
+        .bySimpleNaturalId(AppUser.class)
+        .load(normalizedUsername);
+  }
+
+  @Override
+  public void evictFromCache(Integer id, boolean usernameChanged, boolean emailChanged) {
+    Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+    cache.evictEntityData(AppUser.class, id);
+    if (usernameChanged) {
+      cache.evictNaturalIdData(AppUser.class);
+    }
+    if (emailChanged) {
+      cache.evictDefaultQueryRegion();
+    }
+  }
+}
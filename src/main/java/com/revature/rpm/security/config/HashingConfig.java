@@ -0,0 +1,53 @@
+package com.revature.rpm.security.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/** Provides configuration for how user passwords are hashed. */
+public class HashingConfig {
+
+  /** The algorithm used to hash new passwords (bcrypt, pbkdf2 or scrypt). */
+  @Value("${security.hashing.algorithm:bcrypt}")
+  private String algorithm;
+
+  /**
+   * The targeted time, in milliseconds, for a single password verification. The cost of the
+   * algorithm is calibrated against this value on the host CPU at startup.
+   */
+  @Value("${security.hashing.target-latency:250}")
+  private long targetLatency;
+
+  /**
+   * A fixed cost to use instead of calibrating at startup. A value of zero or less enables
+   * calibration. Stored hashes are only upgraded to a higher cost, so nodes that calibrate
+   * differently converge on the highest one; set a fixed cost to keep every node on the same one.
+   */
+  @Value("${security.hashing.cost:0}")
+  private int cost;
+
+  /**
+   * algorithm getter method.
+   *
+   * @return algorithm associated with this instance of HashingConfig.
+   */
+  public String getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * targetLatency getter method.
+   *
+   * @return targetLatency associated with this instance of HashingConfig.
+   */
+  public long getTargetLatency() {
+    return targetLatency;
+  }
+
+  /**
+   * cost getter method.
+   *
+   * @return cost associated with this instance of HashingConfig.
+   */
+  public int getCost() {
+    return cost;
+  }
+}
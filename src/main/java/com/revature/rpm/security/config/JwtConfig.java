@@ -17,14 +17,101 @@ public class JwtConfig {
   @Value("${security.jwt.prefix:Bearer }")
   private String prefix;
 
-  /** Amount of time a token is valid, in milliseconds. */
-  @Value("${security.jwt.expiration:#{24*60*60*1000}}")
+  /**
+   * Schemes accepted in the token header besides the prefix, e.g. for clients that send their
+   * token as "JWT &lt;token&gt;". Schemes are matched regardless of case.
+   */
+  @Value("${security.jwt.schemes:}")
+  private String[] schemes;
+
+  /**
+   * The name of a cookie that carries the token when the token header does not, e.g. for browser
+   * clients. No cookie is read unless one is configured. The cookie is only accepted on safe
+   * methods (GET, HEAD, OPTIONS and TRACE), as CSRF protection is disabled; it should still be set
+   * with SameSite=Strict, HttpOnly and Secure by whoever issues it.
+   */
+  @Value("${security.jwt.cookie:}")
+  private String cookie;
+
+  /**
+   * Amount of time a token is valid, in milliseconds. Kept short, as clients exchange their refresh
+   * token for a new token once it expires.
+   */
+  @Value("${security.jwt.expiration:#{15*60*1000}}")
   private int expiration;
 
+  /**
+   * Amount of time a refresh token is valid, in milliseconds. Every refresh issues a new refresh
+   * token, so a session stays alive as long as it is refreshed within this time.
+   */
+  @Value("${security.jwt.refresh.expiration:#{7*24*60*60*1000L}}")
+  private long refreshExpiration;
+
+  /**
+   * Amount of time after a login that its refresh tokens stop being accepted, in milliseconds,
+   * however often they were refreshed.
+   */
+  @Value("${security.jwt.refresh.max-lifetime:#{30*24*60*60*1000L}}")
+  private long refreshMaxLifetime;
+
   /** Used as a key with the encryption algorithm to generate JWTs */
   @Value("${security.jwt.secret}")
   private String secret;
 
+  /** The maximum number of verified tokens kept in memory by the TokenFilter. */
+  @Value("${security.jwt.cache.max-size:10000}")
+  private long cacheMaxSize;
+
+  /**
+   * Amount of time a verified token is kept in memory, in milliseconds. Tokens are never kept past
+   * their own expiration.
+   */
+  @Value("${security.jwt.cache.ttl:#{5*60*1000}}")
+  private long cacheTtl;
+
+  /**
+   * The span of expiration times grouped into each bucket of the TokenRevocationList, in
+   * milliseconds. Also how often the list is pruned.
+   */
+  @Value("${security.jwt.revocation.bucket:60000}")
+  private long revocationBucket;
+
+  /**
+   * The algorithm JWTs are signed with: HS512 (with the secret, the default), RS256 or ES256. The
+   * asymmetric algorithms sign with rotating key pairs, whose public keys are published, so that
+   * other services can verify JWTs without knowing the secret.
+   */
+  @Value("${security.jwt.signing.algorithm:HS512}")
+  private String signingAlgorithm;
+
+  /** Amount of time each key pair signs JWTs for before the next one takes over, in milliseconds. */
+  @Value("${security.jwt.signing.rotation-interval:#{24*60*60*1000L}}")
+  private long signingRotationInterval;
+
+  /**
+   * Amount of time the next key pair is published before it starts signing JWTs, in milliseconds,
+   * so that other services have fetched it by the time they receive the first JWT it signed.
+   */
+  @Value("${security.jwt.signing.prepublish:#{60*60*1000L}}")
+  private long signingPrepublish;
+
+  /**
+   * The format of issued tokens: jwt (the default), or compact, a signed binary encoding of the
+   * claims that is about half the size of a JWT and is decoded without a JSON parser. Compact
+   * tokens can only be read by services that know the format, and are only issued to users whose
+   * roles are all listed in security.jwt.compact.roles; other users receive a JWT. Both formats are
+   * always accepted.
+   */
+  @Value("${security.jwt.format:jwt}")
+  private String format;
+
+  /**
+   * The roles that compact tokens can carry, in the order of their bit in the role bitmask. Roles
+   * may be appended, but not reordered or removed while tokens carrying them are valid.
+   */
+  @Value("${security.jwt.compact.roles:ROLE_USER,ROLE_ADMIN}")
+  private String[] compactRoles;
+
   /**
    * header getter method.
    *
@@ -43,6 +130,24 @@ public class JwtConfig {
     return prefix;
   }
 
+  /**
+   * schemes getter method.
+   *
+   * @return schemes associated with this instance of JwtConfig.
+   */
+  public String[] getSchemes() {
+    return schemes;
+  }
+
+  /**
+   * cookie getter method.
+   *
+   * @return cookie associated with this instance of JwtConfig.
+   */
+  public String getCookie() {
+    return cookie;
+  }
+
   /**
    * expiration getter method.
    *
@@ -52,6 +157,24 @@ public class JwtConfig {
     return expiration;
   }
 
+  /**
+   * refreshExpiration getter method.
+   *
+   * @return refreshExpiration associated with this instance of JwtConfig.
+   */
+  public long getRefreshExpiration() {
+    return refreshExpiration;
+  }
+
+  /**
+   * refreshMaxLifetime getter method.
+   *
+   * @return refreshMaxLifetime associated with this instance of JwtConfig.
+   */
+  public long getRefreshMaxLifetime() {
+    return refreshMaxLifetime;
+  }
+
   /**
    * secret getter method.
    *
@@ -60,4 +183,85 @@ public class JwtConfig {
   public String getSecret() {
     return secret;
   }
+
+  /**
+   * cacheMaxSize getter method.
+   *
+   * @return cacheMaxSize associated with this instance of JwtConfig.
+   */
+  public long getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  /**
+   * cacheTtl getter method.
+   *
+   * @return cacheTtl associated with this instance of JwtConfig.
+   */
+  public long getCacheTtl() {
+    return cacheTtl;
+  }
+
+  /**
+   * revocationBucket getter method.
+   *
+   * @return revocationBucket associated with this instance of JwtConfig.
+   */
+  public long getRevocationBucket() {
+    return revocationBucket;
+  }
+
+  /**
+   * signingAlgorithm getter method.
+   *
+   * @return signingAlgorithm associated with this instance of JwtConfig.
+   */
+  public String getSigningAlgorithm() {
+    return signingAlgorithm;
+  }
+
+  /**
+   * signingRotationInterval getter method.
+   *
+   * @return signingRotationInterval associated with this instance of JwtConfig.
+   */
+  public long getSigningRotationInterval() {
+    return signingRotationInterval;
+  }
+
+  /**
+   * signingPrepublish getter method.
+   *
+   * @return signingPrepublish associated with this instance of JwtConfig.
+   */
+  public long getSigningPrepublish() {
+    return signingPrepublish;
+  }
+
+  /**
+   * format getter method.
+   *
+   * @return format associated with this instance of JwtConfig.
+   */
+  public String getFormat() {
+    return format;
+  }
+
+  /**
+   * Checks whether tokens are issued in the compact format.
+   *
+   * @return True if security.jwt.format is compact. Otherwise, false.
+   */
+  public boolean isCompactFormat() {
+    return "compact".equals(format);
+  }
+
+  /**
+   * compactRoles getter method.
+   *
+   * @return compactRoles associated with this instance of JwtConfig.
+   */
+  public String[] getCompactRoles() {
+    return compactRoles;
+  }
 }
@@ -1,20 +1,41 @@
 package com.revature.rpm.security.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.rpm.security.crypto.BCryptHashAlgorithm;
+import com.revature.rpm.security.crypto.HashAlgorithm;
+import com.revature.rpm.security.crypto.PasswordHashingEngine;
+import com.revature.rpm.security.crypto.Pbkdf2HashAlgorithm;
+import com.revature.rpm.security.crypto.SCryptHashAlgorithm;
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.util.BearerTokenResolver;
+import com.revature.rpm.security.util.RoleRegistry;
+import com.revature.rpm.security.util.TokenRevocationList;
+import com.revature.rpm.security.util.UserDetailsCache;
+import com.revature.rpm.security.util.VerificationExecutor;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+import com.revature.rpm.services.RefreshTokenService;
+import com.revature.rpm.services.SigningKeyService;
+import com.revature.rpm.web.controllers.KeySetController;
 import com.revature.rpm.web.filters.AuthFilter;
 import com.revature.rpm.web.filters.GatewaySubversionFilter;
 import com.revature.rpm.web.filters.TokenFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.List;
 import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 /** Provides configuration for Spring Security. */
 @EnableWebSecurity
@@ -22,10 +43,36 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
 
   @Lazy @Autowired private UserDetailsService userDetailsService;
 
+  @Lazy @Autowired private UserDetailsPasswordService userDetailsPasswordService;
+
+  @Lazy @Autowired private RefreshTokenService refreshTokenService;
+
+  @Lazy @Autowired private SigningKeyService signingKeyService;
+
   @Autowired private JwtConfig jwtConfig;
 
   @Autowired private ZuulConfig zuulConfig;
 
+  @Autowired private HashingConfig hashingConfig;
+
+  @Autowired private VerificationConfig verificationConfig;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  /** The number of security events of each type logged in detail per second. */
+  @Value("${security.events.max-detail-per-second:20}")
+  private int maxEventDetailPerSecond;
+
+  /** The maximum number of users kept by the authentication provider's user cache. */
+  @Value("${security.user-cache.max-size:10000}")
+  private long userCacheMaxSize;
+
+  /** The number of milliseconds a user is kept by the authentication provider's user cache. */
+  @Value("${security.user-cache.ttl:#{5*60*1000}}")
+  private long userCacheTtl;
+
   /**
    * Applies custom configuration settings to Spring Security.
    *
@@ -75,9 +122,27 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
          *   - JwtUsernameAndPasswordAuthenticationFilter
          *   - JwtTokenAuthenticationFilter
          */
-        .addFilterBefore(new GatewaySubversionFilter(zuulConfig), AuthFilter.class)
-        .addFilter(new AuthFilter(authenticationManager(), jwtConfig))
-        .addFilterAfter(new TokenFilter(jwtConfig), AuthFilter.class)
+        .addFilterBefore(
+            new GatewaySubversionFilter(zuulConfig, securityEventLog()), AuthFilter.class)
+        .addFilter(
+            new AuthFilter(
+                authenticationManager(),
+                jwtConfig,
+                verificationExecutor(),
+                securityEventLog(),
+                refreshTokenService,
+                signingKeyService,
+                objectMapper))
+        .addFilterAfter(
+            new TokenFilter(
+                bearerTokenResolver(),
+                verifiedTokenCache(),
+                tokenRevocationList(),
+                securityEventLog(),
+                signingKeyService,
+                objectMapper,
+                roleRegistry()),
+            AuthFilter.class)
 
         /*
          * Allows for the access to specific endpoints to be restricted and for others
@@ -94,6 +159,9 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
          *   - GET requests to /users/usernameAvailable
          *   - GET requests to /actuator/info (needed for ELB)
          *   - GET requests to /actuator/routes (needed for ELB)
+         *   - POST requests to /invalidations (gateway header checked by the controller)
+         *   - POST requests to /tokens/refresh (gateway header checked by the controller)
+         *   - GET requests to /.well-known/jwks.json (public keys of the JWT signing keys)
          *   - All requests to Swagger API doc endpoints (will be restricted in production)
          */
         .mvcMatchers(HttpMethod.POST, "/auth")
@@ -108,6 +176,12 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
         .permitAll()
         .mvcMatchers(HttpMethod.GET, "/actuator/routes")
         .permitAll()
+        .mvcMatchers(HttpMethod.POST, "/invalidations")
+        .permitAll()
+        .mvcMatchers(HttpMethod.POST, "/tokens/refresh")
+        .permitAll()
+        .mvcMatchers(HttpMethod.GET, KeySetController.ENDPOINT)
+        .permitAll()
         .mvcMatchers(
             "/v2/api-docs",
             "/configuration/ui",
@@ -139,13 +213,20 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
   /**
    * Defines configuration as having an in memory Authentication Manager that can process
    * authentication requests and uses userDetailsService to provide customized authentication.
+   * Loaded users are kept in userDetailsCache, and stale password hashes are re-hashed through
+   * userDetailsPasswordService upon a successful login.
    *
    * @param auth - An AuthenticationManagementBuilter that can process authentication requests and
    *     can be easily customized.
    */
   @Override
   protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-    auth.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder());
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+    provider.setUserDetailsService(userDetailsService);
+    provider.setPasswordEncoder(passwordEncoder());
+    provider.setUserDetailsPasswordService(userDetailsPasswordService);
+    provider.setUserCache(userDetailsCache());
+    auth.authenticationProvider(provider);
   }
 
   /**
@@ -159,7 +240,64 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
   }
 
   /**
-   * A Spring bean that retrieves an instance of ZuleConfig when invoked.
+   * A Spring bean that retrieves an instance of VerifiedTokenCache when invoked.
+   *
+   * @return a new instance of VerifiedTokenCache.
+   */
+  @Bean
+  public VerifiedTokenCache verifiedTokenCache() {
+    return new VerifiedTokenCache(jwtConfig.getCacheMaxSize(), jwtConfig.getCacheTtl());
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of TokenRevocationList when invoked.
+   *
+   * @return a new instance of TokenRevocationList.
+   */
+  @Bean
+  public TokenRevocationList tokenRevocationList() {
+    return new TokenRevocationList(jwtConfig.getRevocationBucket(), jwtConfig.getExpiration());
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of BearerTokenResolver when invoked. Tokens are
+   * accepted with the configured prefix or any additional scheme, and from the token cookie, if
+   * one is configured. As CSRF protection is disabled, the cookie is only accepted on safe methods.
+   *
+   * @return a new instance of BearerTokenResolver.
+   */
+  @Bean
+  public BearerTokenResolver bearerTokenResolver() {
+    String[] schemes = new String[jwtConfig.getSchemes().length + 1];
+    schemes[0] = jwtConfig.getPrefix();
+    System.arraycopy(jwtConfig.getSchemes(), 0, schemes, 1, jwtConfig.getSchemes().length);
+    return new BearerTokenResolver(jwtConfig.getHeader(), schemes, jwtConfig.getCookie());
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of RoleRegistry when invoked. Role bitmasks follow the
+   * order of the roles compact tokens can carry.
+   *
+   * @return a new instance of RoleRegistry.
+   */
+  @Bean
+  public RoleRegistry roleRegistry() {
+    return new RoleRegistry(jwtConfig.getCompactRoles());
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of UserDetailsCache when invoked.
+   *
+   * @return a new instance of UserDetailsCache.
+   */
+  @Bean
+  public UserDetailsCache userDetailsCache() {
+    return new UserDetailsCache(userCacheMaxSize, userCacheTtl);
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of ZuleConfig when invoked. Its properties are
+   * re-bound whenever the configuration is refreshed.
    *
    * @return a new instance of ZuulConfig.
    */
@@ -169,12 +307,75 @@ public class SecurityCredentialsConfig extends WebSecurityConfigurerAdapter {
   }
 
   /**
-   * A Spring bean that retrieves an instance of BCryptPasswordEncoder when invoked.
+   * A Spring bean that retrieves an instance of HashingConfig when invoked.
+   *
+   * @return a new instance of HashingConfig.
+   */
+  @Bean
+  public HashingConfig hashingConfig() {
+    return new HashingConfig();
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of SecurityEventLog when invoked.
    *
-   * @return a new instance of BCryptPasswordEncoder.
+   * @return a new instance of SecurityEventLog.
    */
   @Bean
-  public BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public SecurityEventLog securityEventLog() {
+    return new SecurityEventLog(maxEventDetailPerSecond, meterRegistry);
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of VerificationConfig when invoked.
+   *
+   * @return a new instance of VerificationConfig.
+   */
+  @Bean
+  public VerificationConfig verificationConfig() {
+    return new VerificationConfig();
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of VerificationExecutor when invoked. The executor is
+   * shut down along with the application context.
+   *
+   * @return a new instance of VerificationExecutor.
+   */
+  @Bean
+  public VerificationExecutor verificationExecutor() {
+    return new VerificationExecutor(
+        verificationConfig.getPoolSize(), verificationConfig.getQueueCapacity(), meterRegistry);
+  }
+
+  /**
+   * A Spring bean that retrieves an instance of PasswordHashingEngine when invoked. Unless a fixed
+   * cost is configured, the cost of the configured algorithm is calibrated against the targeted
+   * verification latency on this host.
+   *
+   * @return a new instance of PasswordHashingEngine.
+   */
+  @Bean
+  public PasswordHashingEngine passwordEncoder() {
+    List<HashAlgorithm> algorithms =
+        Arrays.asList(
+            new BCryptHashAlgorithm(), new Pbkdf2HashAlgorithm(), new SCryptHashAlgorithm());
+
+    HashAlgorithm algorithm =
+        algorithms
+            .stream()
+            .filter(a -> a.getId().equals(hashingConfig.getAlgorithm()))
+            .findFirst()
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Unknown password hashing algorithm: " + hashingConfig.getAlgorithm()));
+
+    int cost = hashingConfig.getCost();
+    if (cost <= 0) {
+      cost = PasswordHashingEngine.calibrate(algorithm, hashingConfig.getTargetLatency());
+    }
+
+    return new PasswordHashingEngine(algorithms, algorithm.getId(), cost);
   }
 }
@@ -0,0 +1,43 @@
+package com.revature.rpm.security.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Provides configuration for the dedicated thread pool on which login credentials are verified.
+ */
+public class VerificationConfig {
+
+  /**
+   * The number of threads verifying credentials. A value of zero or less sizes the pool to the
+   * number of available processors, as password hashing is CPU-bound.
+   */
+  @Value("${security.verification.pool-size:0}")
+  private int poolSize;
+
+  /**
+   * The maximum number of login requests that may wait for a verification thread. Requests beyond
+   * this limit are rejected with a 503 (Service Unavailable) status. Waiting requests hold their
+   * request thread, so this should stay well below the number of request threads.
+   */
+  @Value("${security.verification.queue-capacity:64}")
+  private int queueCapacity;
+
+  /**
+   * poolSize getter method.
+   *
+   * @return poolSize associated with this instance of VerificationConfig, resolved to the number
+   *     of available processors if not explicitly configured.
+   */
+  public int getPoolSize() {
+    return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * queueCapacity getter method.
+   *
+   * @return queueCapacity associated with this instance of VerificationConfig.
+   */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+}
@@ -1,31 +1,120 @@
 package com.revature.rpm.security.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.revature.rpm.security.util.GatewayKeyring;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 
-/** Provides configuration for Zuul Header Authentication. */
+/**
+ * Provides configuration for Zuul Header Authentication. Bound to the security.zsign properties,
+ * which are re-bound (and the keyring of accepted header digests rebuilt) whenever the
+ * configuration is refreshed. <br>
+ * <br>
+ * To rotate the gateway secret without downtime, move the current secret and salt to
+ * security.zsign.previous (with an expires-at timestamp in ISO-8601 format), set the new secret,
+ * refresh every node, and only then switch the gateway over to the new secret.
+ */
+@ConfigurationProperties(prefix = "security.zsign")
 public class ZuulConfig {
 
   /**
    * Indicates the name of the HTTP header that will contain the prefix and Zuul header as a value.
    */
-  @Value("${security.zsign.header:RPM_ZUUL_ACCESS_HEADER}")
-  private String header;
+  private String header = "RPM_ZUUL_ACCESS_HEADER";
 
   /**
    * Indicates the salt value that will be combined with the secret to form the hash that will be
    * transferred with the request.
    */
-  @Value("${security.zsign.salt}")
   private String salt;
 
   /** A secret key that's used with the SHA-512 algorithm to generate a hash. */
-  @Value("${security.zsign.secret}")
   private String secret;
 
+  /** Previous secrets that are still accepted until they expire. */
+  private List<PreviousSecret> previous = new ArrayList<>();
+
+  /** The hex encoded SHA-512 hashes of the salts and secrets accepted on requests. */
+  private volatile GatewayKeyring keyring;
+
   public ZuulConfig() {
     super();
   }
 
+  /**
+   * Builds the keyring of accepted header digests once the salts and secrets have been bound.
+   * Invoked at startup and again each time the configuration is refreshed. Previous secrets without
+   * a salt are assumed to share the current salt.
+   *
+   * @throws IllegalStateException if the salt or secret is not configured, or a previous secret
+   *     has no secret or no valid expiration time.
+   */
+  @PostConstruct
+  public void refreshKeyring() {
+    if (salt == null || secret == null) {
+      throw new IllegalStateException("security.zsign.salt and security.zsign.secret are required");
+    }
+
+    String[] digests = new String[previous.size() + 1];
+    long[] expiries = new long[previous.size() + 1];
+
+    digests[0] = getHash(secret, salt);
+    expiries[0] = Long.MAX_VALUE;
+
+    for (int i = 0; i < previous.size(); i++) {
+      PreviousSecret p = previous.get(i);
+      if (p.getSecret() == null) {
+        throw new IllegalStateException("security.zsign.previous[" + i + "].secret is required");
+      }
+      if (p.getExpiresAt() == null) {
+        throw new IllegalStateException(
+            "security.zsign.previous[" + i + "].expires-at is required");
+      }
+      digests[i + 1] = getHash(p.getSecret(), p.getSalt() != null ? p.getSalt() : salt);
+      try {
+        expiries[i + 1] = Instant.parse(p.getExpiresAt()).toEpochMilli();
+      } catch (DateTimeParseException e) {
+        throw new IllegalStateException(
+            "security.zsign.previous[" + i + "].expires-at is not an ISO-8601 instant", e);
+      }
+    }
+
+    keyring = new GatewayKeyring(digests, expiries);
+  }
+
+  /**
+   * Performs a salted SHA-512 hash.
+   *
+   * @param password - Represents the password that will be hashed.
+   * @param salt - The salt applied before the password.
+   * @return A hex encoded SHA-512 hashed value.
+   */
+  public static String getHash(String password, String salt) {
+
+    try {
+
+      MessageDigest md = MessageDigest.getInstance("SHA-512");
+      md.update(salt.getBytes(StandardCharsets.UTF_8));
+      byte[] bytes = md.digest(password.getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder(bytes.length * 2);
+
+      for (byte b : bytes) {
+        sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+
+      return sb.toString();
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * header getter method.
    *
@@ -79,4 +168,99 @@ public class ZuulConfig {
   public void setSecret(String secret) {
     this.secret = secret;
   }
+
+  /**
+   * previous getter method.
+   *
+   * @return previous associated with this instance of ZuulConfig.
+   */
+  public List<PreviousSecret> getPrevious() {
+    return previous;
+  }
+
+  /**
+   * previous setter method.
+   *
+   * @param previous - New previous.
+   */
+  public void setPrevious(List<PreviousSecret> previous) {
+    this.previous = previous;
+  }
+
+  /**
+   * keyring getter method.
+   *
+   * @return The keyring of accepted header digests, built from the current and previous secrets.
+   */
+  public GatewayKeyring getKeyring() {
+    if (keyring == null) {
+      refreshKeyring();
+    }
+    return keyring;
+  }
+
+  /** A previous gateway secret that remains accepted until it expires. */
+  public static class PreviousSecret {
+
+    private String secret;
+
+    private String salt;
+
+    /** When this secret stops being accepted, as an ISO-8601 timestamp. */
+    private String expiresAt;
+
+    /**
+     * secret getter method.
+     *
+     * @return secret associated with this instance of PreviousSecret.
+     */
+    public String getSecret() {
+      return secret;
+    }
+
+    /**
+     * secret setter method.
+     *
+     * @param secret - New secret.
+     */
+    public void setSecret(String secret) {
+      this.secret = secret;
+    }
+
+    /**
+     * salt getter method.
+     *
+     * @return salt associated with this instance of PreviousSecret.
+     */
+    public String getSalt() {
+      return salt;
+    }
+
+    /**
+     * salt setter method.
+     *
+     * @param salt - New salt.
+     */
+    public void setSalt(String salt) {
+      this.salt = salt;
+    }
+
+    /**
+     * expiresAt getter method.
+     *
+     * @return expiresAt associated with this instance of PreviousSecret.
+     */
+    public String getExpiresAt() {
+      return expiresAt;
+    }
+
+    /**
+     * expiresAt setter method.
+     *
+     * @param expiresAt - New expiresAt.
+     */
+    public void setExpiresAt(String expiresAt) {
+      this.expiresAt = expiresAt;
+    }
+  }
 }
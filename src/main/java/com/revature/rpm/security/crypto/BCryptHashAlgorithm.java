@@ -0,0 +1,84 @@
+package com.revature.rpm.security.crypto;
+
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/** BCrypt hashing. The cost is the log2 number of rounds and is embedded in the hash itself. */
+public class BCryptHashAlgorithm implements HashAlgorithm {
+
+  public static final String ID = "bcrypt";
+
+  private static final Pattern BCRYPT_PATTERN =
+      Pattern.compile("\\$2(a|y|b)?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+  private final SecureRandom random = new SecureRandom();
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword, int cost) {
+    return BCrypt.hashpw(rawPassword.toString(), BCrypt.gensalt(cost, random));
+  }
+
+  /**
+   * Verifies a password against a BCrypt hash. Malformed hashes never match.
+   *
+   * @param rawPassword - The password to verify.
+   * @param hash - A BCrypt hash.
+   * @return True if the password matches the hash. Otherwise, false.
+   */
+  @Override
+  public boolean matches(CharSequence rawPassword, String hash) {
+    if (!isWellFormed(hash)) {
+      return false;
+    }
+    try {
+      return BCrypt.checkpw(rawPassword.toString(), hash);
+    } catch (IllegalArgumentException iae) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean isWellFormed(String hash) {
+    return hash != null && BCRYPT_PATTERN.matcher(hash).matches();
+  }
+
+  /**
+   * Reads the log2 rounds from a hash such as $2a$10$...
+   *
+   * @param hash - A BCrypt hash.
+   * @return The log2 rounds of the hash, or -1 if it is not a BCrypt hash.
+   */
+  @Override
+  public int getCost(String hash) {
+    if (hash == null || hash.length() < 7 || !hash.startsWith("$2")) {
+      return -1;
+    }
+    int offset = hash.charAt(3) == '$' ? 4 : 3;
+    try {
+      return Integer.parseInt(hash.substring(offset, offset + 2));
+    } catch (NumberFormatException nfe) {
+      return -1;
+    }
+  }
+
+  @Override
+  public int getMinimumCost() {
+    return 10;
+  }
+
+  @Override
+  public int getMaximumCost() {
+    return 31;
+  }
+
+  @Override
+  public int nextCost(int cost) {
+    return cost + 1;
+  }
+}
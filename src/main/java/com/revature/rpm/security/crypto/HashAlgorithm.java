@@ -0,0 +1,73 @@
+package com.revature.rpm.security.crypto;
+
+/**
+ * A password hashing algorithm whose work factor (cost) can be tuned. Implementations must produce
+ * hashes that describe their own cost so that stale hashes can be detected and upgraded.
+ */
+public interface HashAlgorithm {
+
+  /**
+   * The identifier that is stored as a prefix (e.g. {bcrypt}) in front of every hash produced by
+   * this algorithm.
+   *
+   * @return The identifier of this algorithm.
+   */
+  String getId();
+
+  /**
+   * Hashes a raw password using the provided cost.
+   *
+   * @param rawPassword - The password to hash.
+   * @param cost - The work factor to apply.
+   * @return The hash (without the algorithm prefix).
+   */
+  String encode(CharSequence rawPassword, int cost);
+
+  /**
+   * Verifies a raw password against a hash previously produced by this algorithm.
+   *
+   * @param rawPassword - The password to verify.
+   * @param hash - The stored hash (without the algorithm prefix).
+   * @return True if the password matches the hash. Otherwise, false.
+   */
+  boolean matches(CharSequence rawPassword, String hash);
+
+  /**
+   * Checks whether a value has the exact format of a hash produced by this algorithm, so that a
+   * plaintext password that merely starts like a hash is not mistaken for one.
+   *
+   * @param hash - The stored value (without the algorithm prefix).
+   * @return True if the value is a hash of this algorithm. Otherwise, false.
+   */
+  boolean isWellFormed(String hash);
+
+  /**
+   * Reads the cost that was used to produce a hash.
+   *
+   * @param hash - The stored hash (without the algorithm prefix).
+   * @return The cost of the hash, or -1 if it could not be determined.
+   */
+  int getCost(String hash);
+
+  /**
+   * The lowest cost this algorithm will ever be calibrated to.
+   *
+   * @return The minimum cost.
+   */
+  int getMinimumCost();
+
+  /**
+   * The highest cost this algorithm will ever be calibrated to.
+   *
+   * @return The maximum cost.
+   */
+  int getMaximumCost();
+
+  /**
+   * Computes the next cost step, which is expected to roughly double the work performed.
+   *
+   * @param cost - The current cost.
+   * @return The next cost.
+   */
+  int nextCost(int cost);
+}
@@ -0,0 +1,178 @@
+package com.revature.rpm.security.crypto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A PasswordEncoder that delegates to one of several HashAlgorithms. Every hash is stored with an
+ * {id} prefix identifying the algorithm that produced it, and every algorithm embeds its cost in
+ * the hash, which allows stale hashes to be detected and re-hashed upon a successful login. <br>
+ * <br>
+ * Hashes without a prefix are assumed to be BCrypt hashes, as those were stored before this engine
+ * was introduced.
+ */
+public class PasswordHashingEngine implements PasswordEncoder {
+
+  private static final Logger logger = LoggerFactory.getLogger(PasswordHashingEngine.class);
+
+  private static final String CALIBRATION_PASSWORD = "calibration-p4ssw0rd";
+
+  private final Map<String, HashAlgorithm> algorithms = new HashMap<>();
+  private final HashAlgorithm algorithm;
+  private final int cost;
+
+  /**
+   * Constructor for PasswordHashingEngine.
+   *
+   * @param algorithms - All algorithms that stored hashes may have been produced with.
+   * @param algorithmId - The id of the algorithm used to encode new passwords.
+   * @param cost - The cost used to encode new passwords.
+   */
+  public PasswordHashingEngine(List<HashAlgorithm> algorithms, String algorithmId, int cost) {
+    for (HashAlgorithm a : algorithms) {
+      this.algorithms.put(a.getId(), a);
+    }
+    this.algorithm = this.algorithms.get(algorithmId);
+    if (this.algorithm == null) {
+      throw new IllegalArgumentException("Unknown password hashing algorithm: " + algorithmId);
+    }
+    this.cost = cost;
+  }
+
+  /**
+   * Determines the highest cost of an algorithm whose hashing time on this host does not exceed
+   * the target latency. Each cost step roughly doubles the work, so the next step is only measured
+   * if its predicted time still fits within the target. The algorithm's minimum cost is returned if
+   * the host is too slow to meet the target at all.
+   *
+   * @param algorithm - The algorithm to calibrate.
+   * @param targetMillis - The targeted time for a single hash verification, in milliseconds.
+   * @return The calibrated cost.
+   */
+  public static int calibrate(HashAlgorithm algorithm, long targetMillis) {
+    int cost = algorithm.getMinimumCost();
+
+    // Warm up the JIT so that the first measurement is not skewed
+    algorithm.encode(CALIBRATION_PASSWORD, cost);
+    long elapsed = measure(algorithm, cost);
+
+    while (cost < algorithm.getMaximumCost() && elapsed * 2 <= targetMillis) {
+      cost = algorithm.nextCost(cost);
+      elapsed = measure(algorithm, cost);
+    }
+
+    logger.info(
+        "Calibrated {} to a cost of {} ({} ms per hash, target {} ms)",
+        algorithm.getId(),
+        cost,
+        elapsed,
+        targetMillis);
+
+    return cost;
+  }
+
+  private static long measure(HashAlgorithm algorithm, int cost) {
+    long start = System.nanoTime();
+    algorithm.encode(CALIBRATION_PASSWORD, cost);
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  /**
+   * Hashes a raw password using the configured algorithm and cost.
+   *
+   * @param rawPassword - The password to hash.
+   * @return The hash, prefixed with the id of the algorithm.
+   */
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return "{" + algorithm.getId() + "}" + algorithm.encode(rawPassword, cost);
+  }
+
+  /**
+   * Verifies a raw password against a stored hash using the algorithm identified by its prefix.
+   *
+   * @param rawPassword - The password to verify.
+   * @param encodedPassword - The stored hash.
+   * @return True if the password matches. Otherwise, false.
+   */
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    HashAlgorithm a = algorithmOf(encodedPassword);
+    if (rawPassword == null || a == null) {
+      return false;
+    }
+    return a.matches(rawPassword, stripPrefix(encodedPassword));
+  }
+
+  /**
+   * Determines whether a stored hash should be re-hashed, which is the case if it was produced by
+   * another algorithm or with a lower cost than the configured (or calibrated) one. Hashes with a
+   * higher cost are kept, so that nodes which calibrated to different costs do not re-hash the same
+   * password back and forth on every login.
+   *
+   * @param encodedPassword - The stored hash.
+   * @return True if the hash is stale. Otherwise, false.
+   */
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+      return true;
+    }
+    if (algorithmOf(encodedPassword) != algorithm) {
+      return true;
+    }
+    return algorithm.getCost(stripPrefix(encodedPassword)) < cost;
+  }
+
+  /**
+   * Determines whether a stored password value was produced by one of the known algorithms.
+   *
+   * @param encodedPassword - The password value as stored in the data source.
+   * @return True if the value is a well-formed hash of a known algorithm. Otherwise, false (i.e. it
+   *     is plaintext, even if it starts like a hash).
+   */
+  public boolean isEncoded(String encodedPassword) {
+    HashAlgorithm a = algorithmOf(encodedPassword);
+    return a != null && a.isWellFormed(stripPrefix(encodedPassword));
+  }
+
+  /**
+   * algorithm getter method.
+   *
+   * @return The algorithm used to encode new passwords.
+   */
+  public HashAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * cost getter method.
+   *
+   * @return The cost used to encode new passwords.
+   */
+  public int getCost() {
+    return cost;
+  }
+
+  private HashAlgorithm algorithmOf(String encodedPassword) {
+    if (encodedPassword == null) {
+      return null;
+    }
+    if (!encodedPassword.startsWith("{")) {
+      return algorithms.get(BCryptHashAlgorithm.ID);
+    }
+    int end = encodedPassword.indexOf('}');
+    return end < 0 ? null : algorithms.get(encodedPassword.substring(1, end));
+  }
+
+  private static String stripPrefix(String encodedPassword) {
+    if (!encodedPassword.startsWith("{")) {
+      return encodedPassword;
+    }
+    return encodedPassword.substring(encodedPassword.indexOf('}') + 1);
+  }
+}
@@ -0,0 +1,113 @@
+package com.revature.rpm.security.crypto;
+
+import java.nio.CharBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.regex.Pattern;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2 with HMAC-SHA256 hashing. Hashes are stored as {@code iterations$salt$hash}, with the salt
+ * and hash Base64 encoded, so the iteration count travels with every hash.
+ */
+public class Pbkdf2HashAlgorithm implements HashAlgorithm {
+
+  public static final String ID = "pbkdf2";
+
+  private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+  private static final int SALT_LENGTH = 16;
+  private static final int KEY_LENGTH = 256;
+
+  /** The iterations, a 16 byte salt and a 32 byte key, Base64 encoded without padding. */
+  private static final Pattern PBKDF2_PATTERN =
+      Pattern.compile("[1-9]\\d*\\$[A-Za-z0-9+/]{22}\\$[A-Za-z0-9+/]{43}");
+
+  private final SecureRandom random = new SecureRandom();
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword, int cost) {
+    byte[] salt = new byte[SALT_LENGTH];
+    random.nextBytes(salt);
+    byte[] key = derive(rawPassword, salt, cost);
+    Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+    return cost + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(key);
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String hash) {
+    if (!isWellFormed(hash)) {
+      return false;
+    }
+    String[] parts = hash.split("\\$");
+    try {
+      int iterations = Integer.parseInt(parts[0]);
+      byte[] salt = Base64.getDecoder().decode(parts[1]);
+      byte[] expected = Base64.getDecoder().decode(parts[2]);
+      return MessageDigest.isEqual(expected, derive(rawPassword, salt, iterations));
+    } catch (IllegalArgumentException iae) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean isWellFormed(String hash) {
+    return hash != null && PBKDF2_PATTERN.matcher(hash).matches();
+  }
+
+  @Override
+  public int getCost(String hash) {
+    int end = hash == null ? -1 : hash.indexOf('$');
+    if (end <= 0) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(hash.substring(0, end));
+    } catch (NumberFormatException nfe) {
+      return -1;
+    }
+  }
+
+  @Override
+  public int getMinimumCost() {
+    return 100_000;
+  }
+
+  @Override
+  public int getMaximumCost() {
+    return 10_000_000;
+  }
+
+  @Override
+  public int nextCost(int cost) {
+    return cost * 2;
+  }
+
+  private byte[] derive(CharSequence rawPassword, byte[] salt, int iterations) {
+    char[] password = toChars(rawPassword);
+    PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, KEY_LENGTH);
+    try {
+      return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+    } catch (GeneralSecurityException gse) {
+      throw new IllegalStateException("Could not derive PBKDF2 key", gse);
+    } finally {
+      spec.clearPassword();
+      Arrays.fill(password, '\0');
+    }
+  }
+
+  private static char[] toChars(CharSequence rawPassword) {
+    CharBuffer chars = CharBuffer.wrap(rawPassword);
+    char[] result = new char[chars.remaining()];
+    chars.get(result);
+    return result;
+  }
+}
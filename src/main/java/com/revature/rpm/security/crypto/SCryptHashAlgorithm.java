@@ -0,0 +1,104 @@
+package com.revature.rpm.security.crypto;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+/**
+ * SCrypt hashing. The cost is the CPU/memory cost parameter (N), which SCryptPasswordEncoder
+ * embeds in the hash alongside the block size and parallelization parameters.
+ */
+public class SCryptHashAlgorithm implements HashAlgorithm {
+
+  public static final String ID = "scrypt";
+
+  private static final int BLOCK_SIZE = 8;
+  private static final int PARALLELIZATION = 1;
+  private static final int KEY_LENGTH = 32;
+  private static final int SALT_LENGTH = 16;
+
+  /** The hex encoded parameters, followed by the Base64 encoded salt and key. */
+  private static final Pattern SCRYPT_PATTERN =
+      Pattern.compile("\\$[0-9a-f]+\\$[A-Za-z0-9+/]+={0,2}\\$[A-Za-z0-9+/]+={0,2}");
+
+  private final Map<Integer, SCryptPasswordEncoder> encoders = new ConcurrentHashMap<>();
+  private final SCryptPasswordEncoder verifier = new SCryptPasswordEncoder();
+
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword, int cost) {
+    return encoders
+        .computeIfAbsent(
+            cost,
+            n ->
+                new SCryptPasswordEncoder(
+                    n, BLOCK_SIZE, PARALLELIZATION, KEY_LENGTH, SALT_LENGTH))
+        .encode(rawPassword);
+  }
+
+  /**
+   * Verifies a password against a SCrypt hash. The parameters are read from the hash itself, so
+   * any encoder instance is able to perform the verification. Malformed hashes never match.
+   *
+   * @param rawPassword - The password to verify.
+   * @param hash - A SCrypt hash.
+   * @return True if the password matches the hash. Otherwise, false.
+   */
+  @Override
+  public boolean matches(CharSequence rawPassword, String hash) {
+    if (!isWellFormed(hash)) {
+      return false;
+    }
+    try {
+      return verifier.matches(rawPassword, hash);
+    } catch (IllegalArgumentException iae) {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean isWellFormed(String hash) {
+    return hash != null && SCRYPT_PATTERN.matcher(hash).matches();
+  }
+
+  /**
+   * Reads N from a hash such as $e0801$salt$key, where the parameter block holds log2(N) in its
+   * upper 16 bits.
+   *
+   * @param hash - A SCrypt hash.
+   * @return N, or -1 if it is not a SCrypt hash.
+   */
+  @Override
+  public int getCost(String hash) {
+    int end = hash == null || !hash.startsWith("$") ? -1 : hash.indexOf('$', 1);
+    if (end <= 1) {
+      return -1;
+    }
+    try {
+      long params = Long.parseLong(hash.substring(1, end), 16);
+      return 1 << (int) (params >> 16 & 0xffff);
+    } catch (NumberFormatException nfe) {
+      return -1;
+    }
+  }
+
+  @Override
+  public int getMinimumCost() {
+    return 1 << 14;
+  }
+
+  @Override
+  public int getMaximumCost() {
+    return 1 << 20;
+  }
+
+  @Override
+  public int nextCost(int cost) {
+    return cost * 2;
+  }
+}
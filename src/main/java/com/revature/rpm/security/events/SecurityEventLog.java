@@ -0,0 +1,116 @@
+package com.revature.rpm.security.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records security events (tokens issued, rejected logins/tokens, gateway subversion attempts) as
+ * structured key=value log lines. Events are logged at INFO through the asynchronous appenders, so
+ * recording an event never waits on I/O and the events may be dropped under backpressure. <br>
+ * <br>
+ * Every event is counted (auth.security.events, tagged by type), but only the first
+ * maxDetailPerSecond events of each type are logged in detail each second. The number of events
+ * suppressed in a second is logged once the next second begins, so a flood of unauthenticated
+ * traffic produces a bounded amount of logging.
+ */
+public class SecurityEventLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(SecurityEventLog.class);
+
+  private final int maxDetailPerSecond;
+  private final Map<SecurityEventType, Window> windows = new EnumMap<>(SecurityEventType.class);
+
+  /**
+   * Constructor for SecurityEventLog.
+   *
+   * @param maxDetailPerSecond - The number of events of each type logged in detail per second.
+   * @param registry - The registry that event counts are recorded to.
+   */
+  public SecurityEventLog(int maxDetailPerSecond, MeterRegistry registry) {
+    this.maxDetailPerSecond = maxDetailPerSecond;
+    for (SecurityEventType type : SecurityEventType.values()) {
+      String tag = type.name().toLowerCase(Locale.ROOT);
+      windows.put(type, new Window(registry.counter("auth.security.events", "type", tag)));
+    }
+  }
+
+  /**
+   * Records a security event.
+   *
+   * @param type - The type of the event.
+   * @param subject - The username involved, if known.
+   * @param remoteAddress - The address the request originated from.
+   * @param detail - A short description, such as the reason for a rejection.
+   */
+  public void record(SecurityEventType type, String subject, String remoteAddress, String detail) {
+    record(type, subject, remoteAddress, detail, System.currentTimeMillis());
+  }
+
+  /**
+   * Records a security event that occurred at the given time.
+   *
+   * @param type - The type of the event.
+   * @param subject - The username involved, if known.
+   * @param remoteAddress - The address the request originated from.
+   * @param detail - A short description, such as the reason for a rejection.
+   * @param nowMillis - When the event occurred, in milliseconds since the epoch.
+   */
+  public void record(
+      SecurityEventType type, String subject, String remoteAddress, String detail, long nowMillis) {
+
+    Window window = windows.get(type);
+    window.counter.increment();
+
+    if (!logger.isInfoEnabled()) {
+      return;
+    }
+
+    long second = nowMillis / 1000;
+    if (window.second.get() != second) {
+      window.roll(type, second);
+    }
+
+    if (window.logged.incrementAndGet() <= maxDetailPerSecond) {
+      logger.info(
+          "event={} subject={} remote={} detail={}", type, subject, remoteAddress, detail);
+    } else {
+      window.suppressed.incrementAndGet();
+    }
+  }
+
+  /** Tracks how many events of one type were logged and suppressed in the current second. */
+  private static class Window {
+
+    private final Counter counter;
+    private final AtomicLong second = new AtomicLong();
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    Window(Counter counter) {
+      this.counter = counter;
+    }
+
+    /**
+     * Starts a new second, logging how many events were suppressed during the previous one. Only
+     * the thread that advances the second performs the reset.
+     */
+    void roll(SecurityEventType type, long newSecond) {
+      long previous = second.get();
+      if (previous == newSecond || !second.compareAndSet(previous, newSecond)) {
+        return;
+      }
+      logged.set(0);
+      long count = suppressed.getAndSet(0);
+      if (count > 0) {
+        logger.info("event={} suppressed={}", type, count);
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.revature.rpm.security.events;
+
+/** The kinds of security-relevant events recorded by the SecurityEventLog. */
+public enum SecurityEventType {
+
+  /** A token was issued after a successful login or token refresh. */
+  ISSUED,
+
+  /** A login attempt or a presented token was rejected. */
+  REJECTED,
+
+  /** A refresh token was presented after it had already been used, so its family was revoked. */
+  REUSED,
+
+  /** A request did not carry a valid gateway header, i.e. it did not come through the gateway. */
+  SUBVERTED
+}
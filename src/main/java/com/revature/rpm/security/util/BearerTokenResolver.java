@@ -0,0 +1,112 @@
+package com.revature.rpm.security.util;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Extracts the token a request is authenticated with: from the token header, if its value starts
+ * with one of the accepted schemes (e.g. "Bearer"), or else from the token cookie, if one is
+ * configured. Schemes are matched case-insensitively against the start of the header only, and
+ * must be followed by at least one space. <br>
+ * <br>
+ * Browsers send cookies along with cross-site requests, and CSRF protection is disabled, so the
+ * cookie is only read on safe methods (GET, HEAD, OPTIONS and TRACE). State-changing requests must
+ * carry the token in the header. <br>
+ * <br>
+ * The token is returned as a view of the header or cookie value, so that it is only copied if it
+ * has to be verified (a token served from the VerifiedTokenCache never is).
+ */
+public class BearerTokenResolver {
+
+  private final String header;
+  private final String[] schemes;
+  private final String cookie;
+
+  /**
+   * Constructor for BearerTokenResolver.
+   *
+   * @param header - The name of the header carrying the token.
+   * @param schemes - The accepted schemes, with or without their trailing space. Blank schemes are
+   *     ignored.
+   * @param cookie - The name of the cookie carrying the token, or null (or blank) to only accept
+   *     the header.
+   */
+  public BearerTokenResolver(String header, String[] schemes, String cookie) {
+    List<String> trimmed = new ArrayList<>(schemes.length);
+    for (String scheme : schemes) {
+      if (scheme != null && !scheme.trim().isEmpty()) {
+        trimmed.add(scheme.trim());
+      }
+    }
+    this.header = header;
+    this.schemes = trimmed.toArray(new String[0]);
+    this.cookie = cookie == null || cookie.trim().isEmpty() ? null : cookie.trim();
+  }
+
+  /**
+   * Retrieves the token of a request.
+   *
+   * @param req - The HTTP request.
+   * @return A view of the raw token (without scheme), or null if the request carries none.
+   */
+  public CharSequence resolve(HttpServletRequest req) {
+    CharSequence token = fromHeader(req.getHeader(header));
+    if (token != null || !isSafe(req.getMethod())) {
+      return token;
+    }
+    return fromCookie(req.getCookies());
+  }
+
+  /**
+   * Strips the scheme from the value of a token header.
+   *
+   * @param value - The value of the header, or null.
+   * @return A view of the token, or null if the value does not start with an accepted scheme or
+   *     carries no token after it.
+   */
+  public CharSequence fromHeader(String value) {
+    if (value == null) {
+      return null;
+    }
+    for (String scheme : schemes) {
+      int start = scheme.length();
+      if (value.length() > start
+          && value.charAt(start) == ' '
+          && value.regionMatches(true, 0, scheme, 0, start)) {
+        while (start < value.length() && value.charAt(start) == ' ') {
+          start++;
+        }
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) == ' ') {
+          end--;
+        }
+        return start == end ? null : CharBuffer.wrap(value, start, end);
+      }
+    }
+    return null;
+  }
+
+  private static boolean isSafe(String method) {
+    return "GET".equals(method)
+        || "HEAD".equals(method)
+        || "OPTIONS".equals(method)
+        || "TRACE".equals(method);
+  }
+
+  private CharSequence fromCookie(Cookie[] cookies) {
+    if (cookie == null || cookies == null) {
+      return null;
+    }
+    for (Cookie candidate : cookies) {
+      if (cookie.equals(candidate.getName())
+          && candidate.getValue() != null
+          && !candidate.getValue().isEmpty()) {
+        return candidate.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,185 @@
+package com.revature.rpm.security.util;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Encodes and decodes compact tokens: the claims of a JWT in a fixed binary layout, followed by
+ * the signature of that layout, both Base64url-encoded and separated by a single dot. The layout
+ * (version 1, big-endian) is: <br>
+ * - version (1 byte)<br>
+ * - length of the key ID (1 byte), followed by the key ID (ASCII), empty for the shared secret<br>
+ * - token ID (16 bytes, the jti claim)<br>
+ * - issued at, in epoch seconds (4 bytes, unsigned)<br>
+ * - expiration, in epoch seconds (4 bytes, unsigned)<br>
+ * - roles (4 bytes), a bitmask over security.jwt.compact.roles<br>
+ * - subject (the remaining bytes, UTF-8)<br>
+ * <br>
+ * The issuer is always "revature", so it is left out. A JWT has two dots, so the two formats can be
+ * told apart without decoding either.
+ */
+public class CompactToken {
+
+  public static final byte VERSION = 1;
+
+  private static final int TOKEN_ID_LENGTH = 16;
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private CompactToken() {
+    super();
+  }
+
+  /**
+   * Checks whether a token is in the compact format rather than a JWT.
+   *
+   * @param token - The raw token (without prefix).
+   * @return True if the token has exactly one dot.
+   */
+  public static boolean isCompact(String token) {
+    int dot = token.indexOf('.');
+    return dot > 0 && token.indexOf('.', dot + 1) < 0;
+  }
+
+  /**
+   * Encodes and signs a compact token.
+   *
+   * @param tokenId - The 16 byte ID of the token.
+   * @param username - The subject of the token.
+   * @param authorities - The authorities claimed by the token.
+   * @param issuedAt - When the token is issued, in epoch milliseconds.
+   * @param expiresAt - When the token expires, in epoch milliseconds.
+   * @param roles - The roles a compact token can carry, in the order of their bit.
+   * @param key - The key to sign the token with.
+   * @return The compact token, or null if an authority is not one of the roles, in which case a
+   *     JWT has to be issued instead.
+   */
+  public static String encode(
+      byte[] tokenId,
+      String username,
+      Collection<? extends GrantedAuthority> authorities,
+      long issuedAt,
+      long expiresAt,
+      String[] roles,
+      SigningKey key) {
+
+    int roleMask = 0;
+    for (GrantedAuthority authority : authorities) {
+      int bit = indexOf(roles, authority.getAuthority());
+      if (bit < 0 || bit >= Integer.SIZE) {
+        return null;
+      }
+      roleMask |= 1 << bit;
+    }
+
+    byte[] kid =
+        key.getKid() == null ? new byte[0] : key.getKid().getBytes(StandardCharsets.US_ASCII);
+    byte[] subject = username.getBytes(StandardCharsets.UTF_8);
+
+    byte[] claims =
+        ByteBuffer.allocate(2 + kid.length + TOKEN_ID_LENGTH + 12 + subject.length)
+            .put(VERSION)
+            .put((byte) kid.length)
+            .put(kid)
+            .put(tokenId, 0, TOKEN_ID_LENGTH)
+            .putInt((int) (issuedAt / 1000))
+            .putInt((int) (expiresAt / 1000))
+            .putInt(roleMask)
+            .put(subject)
+            .array();
+
+    return ENCODER.encodeToString(claims)
+        + '.'
+        + ENCODER.encodeToString(key.getCodec().signature(claims));
+  }
+
+  /**
+   * Verifies and decodes a compact token.
+   *
+   * @param token - The compact token.
+   * @param roleRegistry - Provides the authorities of the role bitmask.
+   * @param keyResolver - Resolves the key the token is verified with, by its ID (null for the
+   *     shared secret).
+   * @return The verified token.
+   * @throws MalformedJwtException if the token is not a compact token of a known version.
+   * @throws SignatureException if the key is unknown or the signature does not match.
+   * @throws ExpiredJwtException if the token has expired.
+   */
+  public static VerifiedToken decode(
+      String token, RoleRegistry roleRegistry, Function<String, SigningKey> keyResolver) {
+
+    int dot = token.indexOf('.');
+    byte[] claims;
+    byte[] signature;
+    try {
+      claims = DECODER.decode(token.substring(0, Math.max(dot, 0)));
+      signature = DECODER.decode(token.substring(dot + 1));
+    } catch (IllegalArgumentException e) {
+      throw new MalformedJwtException("Token is not Base64url-encoded", e);
+    }
+
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(claims);
+      if (buffer.get() != VERSION) {
+        throw new MalformedJwtException("Unknown compact token version");
+      }
+
+      int kidLength = buffer.get() & 0xFF;
+      String kid =
+          kidLength == 0
+              ? null
+              : new String(claims, buffer.position(), kidLength, StandardCharsets.US_ASCII);
+      buffer.position(buffer.position() + kidLength);
+
+      SigningKey key = keyResolver.apply(kid);
+      if (key == null) {
+        throw new SignatureException("Unknown signing key");
+      }
+      if (!key.getCodec().matches(claims, signature)) {
+        throw new SignatureException("Token signature does not match");
+      }
+
+      String tokenId = ENCODER.encodeToString(readBytes(buffer, TOKEN_ID_LENGTH));
+      long issuedAt = (buffer.getInt() & 0xFFFFFFFFL) * 1000;
+      long expiresAt = (buffer.getInt() & 0xFFFFFFFFL) * 1000;
+      int roleMask = buffer.getInt();
+
+      if (expiresAt <= System.currentTimeMillis()) {
+        throw new ExpiredJwtException(null, null, "Token has expired");
+      }
+
+      String username =
+          new String(claims, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+
+      return new VerifiedToken(
+          username, roleRegistry.getAuthorities(roleMask), tokenId, issuedAt, expiresAt);
+
+    } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new MalformedJwtException("Compact token is truncated", e);
+    }
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static int indexOf(String[] roles, String role) {
+    for (int i = 0; i < roles.length; i++) {
+      if (roles[i].equals(role)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,84 @@
+package com.revature.rpm.security.util;
+
+/**
+ * An immutable set of gateway header digests that are currently accepted: the digest of the
+ * current secret, which never expires, plus the digests of previous secrets until their expiry.
+ * This allows the gateway secret to be rotated without restarting the gateway and every node at
+ * once. <br>
+ * <br>
+ * The keyring only ever holds a handful of digests, so matching a header is a fixed, small number
+ * of constant-time comparisons that does not allocate.
+ */
+public class GatewayKeyring {
+
+  private final String[] digests;
+  private final long[] expiries;
+
+  /**
+   * Constructor for GatewayKeyring.
+   *
+   * @param digests - The accepted hex encoded digests, the current one first.
+   * @param expiries - When each digest stops being accepted, in epoch milliseconds.
+   */
+  public GatewayKeyring(String[] digests, long[] expiries) {
+    if (digests.length == 0 || digests.length != expiries.length) {
+      throw new IllegalArgumentException("Each gateway digest requires exactly one expiry");
+    }
+    this.digests = digests.clone();
+    this.expiries = expiries.clone();
+  }
+
+  /**
+   * Checks whether a header value matches any digest that has not yet expired.
+   *
+   * @param header - The header value provided on the request, or null if it is missing.
+   * @param nowMillis - The current time, in epoch milliseconds.
+   * @return True if the header matches an active digest and false otherwise.
+   */
+  public boolean matches(String header, long nowMillis) {
+    if (header == null) {
+      return false;
+    }
+    boolean matched = false;
+    for (int i = 0; i < digests.length; i++) {
+      matched |= expiries[i] > nowMillis && constantTimeEquals(digests[i], header);
+    }
+    return matched;
+  }
+
+  /**
+   * Retrieves the digest of the current secret.
+   *
+   * @return The current hex encoded digest.
+   */
+  public String getCurrent() {
+    return digests[0];
+  }
+
+  /**
+   * Retrieves the number of digests in this keyring, including expired ones.
+   *
+   * @return The size of the keyring.
+   */
+  public int size() {
+    return digests.length;
+  }
+
+  /**
+   * Compares two strings in constant time with respect to their contents.
+   *
+   * @param expected - The expected value.
+   * @param actual - The value provided on the request.
+   * @return True if the values are equal and false otherwise.
+   */
+  static boolean constantTimeEquals(String expected, String actual) {
+    if (expected.length() != actual.length()) {
+      return false;
+    }
+    int diff = 0;
+    for (int i = 0; i < expected.length(); i++) {
+      diff |= expected.charAt(i) ^ actual.charAt(i);
+    }
+    return diff == 0;
+  }
+}
@@ -1,17 +1,25 @@
 package com.revature.rpm.security.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.revature.rpm.security.config.JwtConfig;
-import io.jsonwebtoken.JwtBuilder;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import java.sql.Date;
-import java.util.stream.Collectors;
+import io.jsonwebtoken.Claims;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
 /** A JWT generator. */
 public class JwtGenerator {
 
+  private static final JsonFactory JSON = new JsonFactory();
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
   private JwtGenerator() {
     super();
   }
@@ -20,43 +28,84 @@ public class JwtGenerator {
    * Creates a JWT based on an authentication token. <br>
    * <br>
    * Encodes the following inside the JWT: 
+   *   - A unique ID for the JWT (jti), by which it can be revoked<br>
    *   - The username of the subject<br>
    *   - The issuer of the JWT token<br>
    *   - The authority claims of the user based upon their role<br>
    *   - The time that the JWT token was issued<br>
    *   - When the JWT token will expire (in milliseconds) <br>
+   * <br>
+   * The JWT is issued at the given time and signed with the given key, which is built once and
+   * reused (e.g. SigningKeyService.getCurrent()). It expires JwtConfig.getExpiration() milliseconds
+   * after it is issued, and carries the ID of the key (kid header), if it has one. The claims are
+   * written in the same order and format as jjwt writes them, and signed by the TokenCodec of the
+   * key. <br>
+   * <br>
+   * If security.jwt.format is compact, a CompactToken carrying the same claims is created instead,
+   * unless the user has a role that compact tokens cannot carry.
    *
    * @param auth - Authentication token from Spring Security.
    * @param jwtConfig - Configures the settings for the JWT's creation.
+   * @param key - The key to sign the JWT with.
+   * @param nowMillis - The time the JWT is issued, in milliseconds since the epoch.
    * @return The JWT (without prefix).
    */
-  public static String createJwt(Authentication auth, JwtConfig jwtConfig) {
-    System.out.println("creating new JWT for: " + auth.getName());
+  public static String createJwt(
+      Authentication auth, JwtConfig jwtConfig, SigningKey key, long nowMillis) {
+
+    byte[] tokenId = newTokenId();
 
-    SignatureAlgorithm sigAlg = SignatureAlgorithm.HS512;
-    long nowMillis = System.currentTimeMillis();
+    if (jwtConfig.isCompactFormat()) {
+      String compact =
+          CompactToken.encode(
+              tokenId,
+              auth.getName(),
+              auth.getAuthorities(),
+              nowMillis,
+              nowMillis + jwtConfig.getExpiration(),
+              jwtConfig.getCompactRoles(),
+              key);
+      if (compact != null) {
+        return compact;
+      }
+    }
 
     /*
-     * Converts info in .claim() to list of strings
+     * Writes the authorities as a list of strings
      *
      * IMPORTANT: this affects the way we get them back in the Gateway.
      */
-    JwtBuilder builder =
-        Jwts.builder()
-            .setSubject(auth.getName())
-            .setIssuer("revature")
-            .claim(
-                "authorities",
-                auth.getAuthorities()
-                    .stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(Collectors.toList()))
-            .setIssuedAt(new Date(nowMillis))
-            .setExpiration(new Date(nowMillis + jwtConfig.getExpiration()))
-            .signWith(sigAlg, jwtConfig.getSecret().getBytes());
-
-    System.out.println("JWT successfully created");
-
-    return builder.compact();
+    ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+    try (JsonGenerator claims = JSON.createGenerator(payload)) {
+      claims.writeStartObject();
+      claims.writeStringField(Claims.ID, ENCODER.encodeToString(tokenId));
+      claims.writeStringField(Claims.SUBJECT, auth.getName());
+      claims.writeStringField(Claims.ISSUER, "revature");
+      claims.writeArrayFieldStart("authorities");
+      for (GrantedAuthority authority : auth.getAuthorities()) {
+        claims.writeString(authority.getAuthority());
+      }
+      claims.writeEndArray();
+      claims.writeNumberField(Claims.ISSUED_AT, nowMillis / 1000);
+      claims.writeNumberField(Claims.EXPIRATION, (nowMillis + jwtConfig.getExpiration()) / 1000);
+      claims.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return key.getCodec().sign(payload.toByteArray());
+  }
+
+  /**
+   * Generates a token ID. IDs only need to be unique, not unpredictable, so they are drawn from a
+   * ThreadLocalRandom rather than a SecureRandom.
+   *
+   * @return 128 random bits, which are Base64url-encoded as the jti claim.
+   */
+  private static byte[] newTokenId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    ByteBuffer id = ByteBuffer.allocate(16);
+    id.putLong(random.nextLong()).putLong(random.nextLong());
+    return id.array();
   }
 }
@@ -0,0 +1,93 @@
+package com.revature.rpm.security.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Interns the GrantedAuthority of each role, and the immutable list of authorities of each
+ * distinct combination of roles, so that the authorities of a user or token are looked up rather
+ * than built. Users only ever have a handful of distinct role combinations, and every combination
+ * comes from the database or a verified token, so the registry stays small. <br>
+ * <br>
+ * Combinations are keyed by their comma-separated roles (as stored in RPM_USER_ROLE), or by their
+ * role bitmask (as carried by compact tokens).
+ */
+public class RoleRegistry {
+
+  private final String[] bitRoles;
+
+  private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+  private final Map<String, List<GrantedAuthority>> byRoles = new ConcurrentHashMap<>();
+  private final Map<Integer, List<GrantedAuthority>> byMask = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for RoleRegistry.
+   *
+   * @param bitRoles - The roles in the order of their bit in a role bitmask.
+   */
+  public RoleRegistry(String[] bitRoles) {
+    this.bitRoles = bitRoles.clone();
+  }
+
+  /**
+   * Retrieves the interned authority of a role.
+   *
+   * @param role - The role.
+   * @return The authority, which is the same instance for every call with an equal role.
+   */
+  public GrantedAuthority getAuthority(String role) {
+    return authorities.computeIfAbsent(role, SimpleGrantedAuthority::new);
+  }
+
+  /**
+   * Retrieves the authorities of a combination of roles.
+   *
+   * @param roles - The comma-separated roles, which are trimmed, and of which empty ones are
+   *     ignored (as by AuthorityUtils.commaSeparatedStringToAuthorityList).
+   * @return The unmodifiable authorities, which are the same instance for every call with equal
+   *     roles.
+   */
+  public List<GrantedAuthority> getAuthorities(String roles) {
+    if (roles == null) {
+      return Collections.emptyList();
+    }
+    List<GrantedAuthority> cached = byRoles.get(roles);
+    return cached != null ? cached : byRoles.computeIfAbsent(roles, this::intern);
+  }
+
+  /**
+   * Retrieves the authorities of a role bitmask. Bits beyond the known roles are ignored.
+   *
+   * @param mask - The role bitmask.
+   * @return The unmodifiable authorities, which are the same instance for every call with an equal
+   *     bitmask.
+   */
+  public List<GrantedAuthority> getAuthorities(int mask) {
+    List<GrantedAuthority> cached = byMask.get(mask);
+    return cached != null ? cached : byMask.computeIfAbsent(mask, this::intern);
+  }
+
+  private List<GrantedAuthority> intern(String roles) {
+    List<GrantedAuthority> interned = new ArrayList<>();
+    for (GrantedAuthority authority : AuthorityUtils.commaSeparatedStringToAuthorityList(roles)) {
+      interned.add(getAuthority(authority.getAuthority()));
+    }
+    return Collections.unmodifiableList(interned);
+  }
+
+  private List<GrantedAuthority> intern(int mask) {
+    List<GrantedAuthority> interned = new ArrayList<>(Integer.bitCount(mask));
+    for (int bit = 0; bit < bitRoles.length && bit < Integer.SIZE; bit++) {
+      if ((mask & (1 << bit)) != 0) {
+        interned.add(getAuthority(bitRoles[bit]));
+      }
+    }
+    return Collections.unmodifiableList(interned);
+  }
+}
@@ -0,0 +1,189 @@
+package com.revature.rpm.security.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * A key that JWTs are signed and verified with, along with the ID (kid header) that identifies it
+ * and the algorithm it is used with. Asymmetric keys can be exported as a JSON Web Key, so that
+ * other services can verify the JWTs they signed without knowing any secret.
+ */
+public class SigningKey {
+
+  private final String kid;
+  private final SignatureAlgorithm algorithm;
+  private final Key signingKey;
+  private final Key verificationKey;
+  private final long activatesAt;
+  private final long retiresAt;
+  private final TokenCodec codec;
+
+  /**
+   * Constructor for SigningKey.
+   *
+   * @param kid - The ID of the key, or null for the shared secret.
+   * @param algorithm - The algorithm the key is used with.
+   * @param signingKey - The key JWTs are signed with, or null if it is not available on this node.
+   * @param verificationKey - The key JWTs are verified with.
+   * @param activatesAt - When the key starts signing, in epoch milliseconds.
+   * @param retiresAt - When the key stops signing, in epoch milliseconds.
+   */
+  public SigningKey(
+      String kid,
+      SignatureAlgorithm algorithm,
+      Key signingKey,
+      Key verificationKey,
+      long activatesAt,
+      long retiresAt) {
+    this.kid = kid;
+    this.algorithm = algorithm;
+    this.signingKey = signingKey;
+    this.verificationKey = verificationKey;
+    this.activatesAt = activatesAt;
+    this.retiresAt = retiresAt;
+    this.codec = new TokenCodec(kid, algorithm, signingKey, verificationKey);
+  }
+
+  /**
+   * Creates the key for the shared secret, which signs and verifies JWTs with HS512 and never
+   * retires. The secret is encoded as UTF-8, regardless of the platform's default charset.
+   *
+   * @param secret - The shared secret (security.jwt.secret).
+   * @return A new SigningKey without an ID.
+   */
+  public static SigningKey hmac(String secret) {
+    Key key =
+        new SecretKeySpec(
+            secret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS512.getJcaName());
+    return new SigningKey(null, SignatureAlgorithm.HS512, key, key, 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * kid getter method.
+   *
+   * @return kid associated with this instance of SigningKey.
+   */
+  public String getKid() {
+    return kid;
+  }
+
+  /**
+   * algorithm getter method.
+   *
+   * @return algorithm associated with this instance of SigningKey.
+   */
+  public SignatureAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  /**
+   * signingKey getter method.
+   *
+   * @return signingKey associated with this instance of SigningKey, or null if JWTs cannot be
+   *     signed with it on this node.
+   */
+  public Key getSigningKey() {
+    return signingKey;
+  }
+
+  /**
+   * verificationKey getter method.
+   *
+   * @return verificationKey associated with this instance of SigningKey.
+   */
+  public Key getVerificationKey() {
+    return verificationKey;
+  }
+
+  /**
+   * activatesAt getter method.
+   *
+   * @return activatesAt associated with this instance of SigningKey.
+   */
+  public long getActivatesAt() {
+    return activatesAt;
+  }
+
+  /**
+   * retiresAt getter method.
+   *
+   * @return retiresAt associated with this instance of SigningKey.
+   */
+  public long getRetiresAt() {
+    return retiresAt;
+  }
+
+  /**
+   * codec getter method.
+   *
+   * @return The TokenCodec that signs and verifies JWTs with this key, which is created once per
+   *     key.
+   */
+  public TokenCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * Exports the public key as a JSON Web Key (RFC 7517).
+   *
+   * @return The members of the JWK, or null if the key is not an RSA or EC public key.
+   */
+  public Map<String, Object> toJwk() {
+    Map<String, Object> jwk = new LinkedHashMap<>();
+
+    if (verificationKey instanceof RSAPublicKey) {
+      RSAPublicKey rsa = (RSAPublicKey) verificationKey;
+      jwk.put("kty", "RSA");
+      jwk.put("kid", kid);
+      jwk.put("use", "sig");
+      jwk.put("alg", algorithm.getValue());
+      jwk.put("n", encode(rsa.getModulus(), 0));
+      jwk.put("e", encode(rsa.getPublicExponent(), 0));
+      return jwk;
+    }
+
+    if (verificationKey instanceof ECPublicKey) {
+      ECPublicKey ec = (ECPublicKey) verificationKey;
+      int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+      jwk.put("kty", "EC");
+      jwk.put("kid", kid);
+      jwk.put("use", "sig");
+      jwk.put("alg", algorithm.getValue());
+      jwk.put("crv", "P-" + ec.getParams().getCurve().getField().getFieldSize());
+      jwk.put("x", encode(ec.getW().getAffineX(), size));
+      jwk.put("y", encode(ec.getW().getAffineY(), size));
+      return jwk;
+    }
+
+    return null;
+  }
+
+  /**
+   * Encodes an unsigned integer as Base64url, as JWKs do.
+   *
+   * @param value - The (positive) integer.
+   * @param size - The number of bytes to left-pad the integer to, or 0 for its minimal length.
+   * @return The Base64url-encoded big-endian bytes of the integer.
+   */
+  private static String encode(BigInteger value, int size) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) {
+      bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    if (bytes.length < size) {
+      byte[] padded = new byte[size];
+      System.arraycopy(bytes, 0, padded, size - bytes.length, bytes.length);
+      bytes = padded;
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+}
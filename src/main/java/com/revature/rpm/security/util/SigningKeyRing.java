@@ -0,0 +1,115 @@
+package com.revature.rpm.security.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable set of the keys that JWTs are currently verified with, looked up by their ID (kid
+ * header). Keys take turns signing: the current key is the most recently activated one that has a
+ * signing key on this node. Keys are kept after they retire, so that the JWTs they signed can be
+ * verified until those expire, and may be added before they activate, so that other services can
+ * learn about them before they sign anything. Keys activated at the same time are ordered by ID, so
+ * that every node agrees on the current key.
+ */
+public class SigningKeyRing {
+
+  private final List<SigningKey> keys;
+  private final Map<String, SigningKey> keysById;
+  private final Map<String, Object> jwks;
+
+  /**
+   * Constructor for SigningKeyRing.
+   *
+   * @param keys - The keys JWTs are verified with.
+   */
+  public SigningKeyRing(List<SigningKey> keys) {
+    List<SigningKey> sorted = new ArrayList<>(keys);
+    sorted.sort(
+        Comparator.comparingLong(SigningKey::getActivatesAt)
+            .thenComparing(SigningKey::getKid, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed());
+
+    Map<String, SigningKey> byId = new HashMap<>();
+    List<Map<String, Object>> exported = new ArrayList<>();
+    for (SigningKey key : sorted) {
+      byId.putIfAbsent(key.getKid(), key);
+      Map<String, Object> jwk = key.toJwk();
+      if (jwk != null) {
+        exported.add(jwk);
+      }
+    }
+
+    Map<String, Object> set = new LinkedHashMap<>();
+    set.put("keys", Collections.unmodifiableList(exported));
+
+    this.keys = Collections.unmodifiableList(sorted);
+    this.keysById = byId;
+    this.jwks = Collections.unmodifiableMap(set);
+  }
+
+  /**
+   * Retrieves the key that JWTs are signed with at the given time.
+   *
+   * @param nowMillis - The current time, in epoch milliseconds.
+   * @return The most recently activated key that can sign on this node, or null if there is none.
+   */
+  public SigningKey getCurrent(long nowMillis) {
+    for (SigningKey key : keys) {
+      if (key.getActivatesAt() <= nowMillis && key.getSigningKey() != null) {
+        return key;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves a key by its ID.
+   *
+   * @param kid - The ID of the key, or null for the shared secret.
+   * @return The key, or null if this ring does not hold it.
+   */
+  public SigningKey get(String kid) {
+    return keysById.get(kid);
+  }
+
+  /**
+   * Retrieves the key a token was signed with by the header of the token, without parsing or
+   * copying the header. Only tokens whose header is encoded exactly as this service encodes it are
+   * matched.
+   *
+   * @param token - The compact token.
+   * @return The key, or null if no key's header matches.
+   */
+  public SigningKey getByHeader(String token) {
+    for (SigningKey key : keys) {
+      if (key.getCodec().matchesHeader(token)) {
+        return key;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves every key in this ring.
+   *
+   * @return The unmodifiable keys, the most recently activated first.
+   */
+  public List<SigningKey> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Retrieves the public keys of this ring as a JSON Web Key Set (RFC 7517), which is exported once
+   * per ring. Keys that cannot be exported (i.e. the shared secret) are left out.
+   *
+   * @return The unmodifiable members of the JWK Set.
+   */
+  public Map<String, Object> getJwks() {
+    return jwks;
+  }
+}
@@ -0,0 +1,220 @@
+package com.revature.rpm.security.util;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.crypto.EllipticCurveProvider;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import javax.crypto.Mac;
+
+/**
+ * Signs and verifies compact JWS tokens (header.payload.signature) with a single key. The header
+ * is encoded once, and each thread initializes its own Mac or Signature once, so signing and
+ * verifying only allocate for the token itself. <br>
+ * <br>
+ * The header is encoded exactly as jjwt encodes it ({"kid":...,"alg":...}), so tokens signed by
+ * either can be verified by the other.
+ */
+public class TokenCodec {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final SignatureAlgorithm algorithm;
+  private final String encodedHeader;
+
+  private final ThreadLocal<Mac> macs;
+  private final ThreadLocal<Signature> signers;
+  private final ThreadLocal<Signature> verifiers;
+
+  /**
+   * Constructor for TokenCodec.
+   *
+   * @param kid - The ID of the key (kid header), or null to leave it out.
+   * @param algorithm - The algorithm tokens are signed with: HMAC, RSA or ECDSA.
+   * @param signingKey - The key tokens are signed with, or null if tokens are only verified.
+   * @param verificationKey - The key tokens are verified with.
+   */
+  public TokenCodec(String kid, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey) {
+    this.algorithm = algorithm;
+
+    String header =
+        kid == null
+            ? "{\"alg\":\"" + algorithm.getValue() + "\"}"
+            : "{\"kid\":\"" + kid + "\",\"alg\":\"" + algorithm.getValue() + "\"}";
+    this.encodedHeader = ENCODER.encodeToString(header.getBytes(StandardCharsets.UTF_8));
+
+    if (algorithm.isHmac()) {
+      this.macs = ThreadLocal.withInitial(() -> newMac(algorithm, verificationKey));
+      this.signers = null;
+      this.verifiers = null;
+    } else {
+      this.macs = null;
+      this.signers =
+          signingKey == null
+              ? null
+              : ThreadLocal.withInitial(() -> newSigner(algorithm, (PrivateKey) signingKey));
+      this.verifiers =
+          ThreadLocal.withInitial(() -> newVerifier(algorithm, (PublicKey) verificationKey));
+    }
+  }
+
+  /**
+   * Retrieves the Base64url-encoded header of the tokens signed by this codec.
+   *
+   * @return The encoded header.
+   */
+  public String getEncodedHeader() {
+    return encodedHeader;
+  }
+
+  /**
+   * Checks whether a token carries the header of the tokens signed by this codec, without copying
+   * it.
+   *
+   * @param token - The compact token.
+   * @return True if the token starts with this codec's header.
+   */
+  public boolean matchesHeader(String token) {
+    return token.startsWith(encodedHeader)
+        && token.length() > encodedHeader.length()
+        && token.charAt(encodedHeader.length()) == '.';
+  }
+
+  /**
+   * Signs a payload.
+   *
+   * @param payload - The encoded claims.
+   * @return The compact token.
+   * @throws IllegalStateException if this codec only verifies tokens.
+   */
+  public String sign(byte[] payload) {
+    String signingInput = encodedHeader + '.' + ENCODER.encodeToString(payload);
+    byte[] signature = signature(signingInput.getBytes(StandardCharsets.US_ASCII));
+    return signingInput + '.' + ENCODER.encodeToString(signature);
+  }
+
+  /**
+   * Computes the signature of arbitrary input, in the format JWS uses (e.g. R || S for ECDSA).
+   *
+   * @param input - The bytes to sign.
+   * @return The signature.
+   * @throws IllegalStateException if this codec only verifies tokens.
+   */
+  public byte[] signature(byte[] input) {
+    if (macs != null) {
+      return macs.get().doFinal(input);
+    }
+    if (signers == null) {
+      throw new IllegalStateException("Tokens cannot be signed with this key");
+    }
+    try {
+      Signature signer = signers.get();
+      signer.update(input);
+      byte[] signature = signer.sign();
+      if (algorithm.isEllipticCurve()) {
+        signature =
+            EllipticCurveProvider.transcodeSignatureToConcat(
+                signature, EllipticCurveProvider.getSignatureByteArrayLength(algorithm));
+      }
+      return signature;
+    } catch (GeneralSecurityException e) {
+      signers.remove();
+      throw new IllegalStateException("Unable to sign token", e);
+    }
+  }
+
+  /**
+   * Verifies the signature of a token. The header of the token is not checked: it is up to the
+   * caller to select the codec by it.
+   *
+   * @param token - The compact token.
+   * @return The decoded payload of the token.
+   * @throws MalformedJwtException if the token is not a compact JWS.
+   * @throws SignatureException if the signature does not match.
+   */
+  public byte[] verify(String token) {
+    int headerEnd = token.indexOf('.');
+    int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+    if (headerEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+      throw new MalformedJwtException("Token is not a compact JWS");
+    }
+
+    byte[] input = token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII);
+    byte[] signature;
+    byte[] payload;
+    try {
+      signature = DECODER.decode(token.substring(payloadEnd + 1));
+      payload = DECODER.decode(token.substring(headerEnd + 1, payloadEnd));
+    } catch (IllegalArgumentException e) {
+      throw new MalformedJwtException("Token is not Base64url-encoded", e);
+    }
+
+    if (!matches(input, signature)) {
+      throw new SignatureException("Token signature does not match");
+    }
+    return payload;
+  }
+
+  /**
+   * Checks the signature of arbitrary input, in the format JWS uses (e.g. R || S for ECDSA).
+   *
+   * @param input - The signed bytes.
+   * @param signature - The signature.
+   * @return True if the signature matches. Otherwise, false.
+   */
+  public boolean matches(byte[] input, byte[] signature) {
+    if (macs != null) {
+      return MessageDigest.isEqual(macs.get().doFinal(input), signature);
+    }
+    try {
+      byte[] der =
+          algorithm.isEllipticCurve()
+              ? EllipticCurveProvider.transcodeSignatureToDER(signature)
+              : signature;
+      Signature verifier = verifiers.get();
+      verifier.update(input);
+      return verifier.verify(der);
+    } catch (GeneralSecurityException | RuntimeException e) {
+      verifiers.remove();
+      return false;
+    }
+  }
+
+  private static Mac newMac(SignatureAlgorithm algorithm, Key key) {
+    try {
+      Mac mac = Mac.getInstance(algorithm.getJcaName());
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Signature newSigner(SignatureAlgorithm algorithm, PrivateKey key) {
+    try {
+      Signature signer = Signature.getInstance(algorithm.getJcaName());
+      signer.initSign(key);
+      return signer;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Signature newVerifier(SignatureAlgorithm algorithm, PublicKey key) {
+    try {
+      Signature verifier = Signature.getInstance(algorithm.getJcaName());
+      verifier.initVerify(key);
+      return verifier;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.revature.rpm.security.util;
+
+import com.revature.rpm.entities.AppUser;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the tokens that were revoked before they expired, so that the TokenFilter can reject them
+ * without accessing the database. Two kinds of revocation are supported: <br>
+ * - A single token, identified by its ID (jti claim), e.g. upon logout.<br>
+ * - Every token issued to a user before a point in time, e.g. when their role is changed or they
+ * are deleted.<br>
+ * <br>
+ * Revoked token IDs are grouped into buckets by the time their token expires, so a lookup only
+ * probes the one bucket its token could be in, and whole buckets are dropped once all of their
+ * tokens have expired. A per-user revocation is dropped once every token issued before it has
+ * expired. Pruning happens as revocations are added, at most once per bucket interval. <br>
+ * <br>
+ * Token issue times only have a precision of seconds, so tokens issued within the same second as a
+ * per-user revocation, but after it, are rejected as well.
+ */
+public class TokenRevocationList {
+
+  private final long bucketMillis;
+  private final long maxTokenLifetime;
+
+  private final Map<Long, Set<String>> revokedIds = new ConcurrentHashMap<>();
+  private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+  private volatile long nextPrune;
+
+  /**
+   * Constructor for TokenRevocationList.
+   *
+   * @param bucketMillis - The span of expiration times grouped into each bucket, in milliseconds.
+   * @param maxTokenLifetime - The longest time a token is valid for, in milliseconds.
+   */
+  public TokenRevocationList(long bucketMillis, long maxTokenLifetime) {
+    this.bucketMillis = bucketMillis;
+    this.maxTokenLifetime = maxTokenLifetime;
+  }
+
+  /**
+   * Revokes a single token.
+   *
+   * @param tokenId - The ID (jti claim) of the token.
+   * @param expiresAt - When the token expires, in epoch milliseconds.
+   */
+  public void revoke(String tokenId, long expiresAt) {
+    long now = System.currentTimeMillis();
+    if (tokenId != null && expiresAt > now) {
+      revokedIds
+          .computeIfAbsent(expiresAt / bucketMillis, bucket -> ConcurrentHashMap.newKeySet())
+          .add(tokenId);
+    }
+    pruneIfDue(now);
+  }
+
+  /**
+   * Revokes every token issued to a user before the given time.
+   *
+   * @param username - The username of the user, regardless of case.
+   * @param revokedAt - The time before which tokens are revoked, in epoch milliseconds.
+   */
+  public void revokeUser(String username, long revokedAt) {
+    if (username != null) {
+      revokedBefore.merge(AppUser.normalize(username), revokedAt, Math::max);
+    }
+    pruneIfDue(System.currentTimeMillis());
+  }
+
+  /**
+   * Checks whether a token has been revoked.
+   *
+   * @param token - The verified token.
+   * @return True if the token was revoked. Otherwise, false.
+   */
+  public boolean isRevoked(VerifiedToken token) {
+
+    if (!revokedBefore.isEmpty()) {
+      Long before = revokedBefore.get(AppUser.normalize(token.getUsername()));
+      if (before != null && token.getIssuedAt() < before) {
+        return true;
+      }
+    }
+
+    if (token.getId() == null || revokedIds.isEmpty()) {
+      return false;
+    }
+
+    Set<String> bucket = revokedIds.get(token.getExpiresAt() / bucketMillis);
+    return bucket != null && bucket.contains(token.getId());
+  }
+
+  /**
+   * Counts the revocations currently held.
+   *
+   * @return The number of revoked token IDs plus the number of users whose tokens were revoked.
+   */
+  public int size() {
+    int size = revokedBefore.size();
+    for (Set<String> bucket : revokedIds.values()) {
+      size += bucket.size();
+    }
+    return size;
+  }
+
+  /**
+   * Drops the buckets whose tokens have all expired, and the per-user revocations that no longer
+   * cover any unexpired token.
+   *
+   * @param now - The current time, in epoch milliseconds.
+   */
+  public void prune(long now) {
+    long expiredBucket = now / bucketMillis;
+    revokedIds.keySet().removeIf(bucket -> bucket < expiredBucket);
+    revokedBefore.values().removeIf(before -> before + maxTokenLifetime < now);
+  }
+
+  private void pruneIfDue(long now) {
+    if (now >= nextPrune) {
+      nextPrune = now + bucketMillis;
+      prune(now);
+    }
+  }
+}
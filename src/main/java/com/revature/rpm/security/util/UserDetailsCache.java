@@ -0,0 +1,89 @@
+package com.revature.rpm.security.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.revature.rpm.dtos.UserPrincipal;
+import com.revature.rpm.entities.AppUser;
+import java.util.concurrent.TimeUnit;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * A bounded cache of the UserPrincipals loaded by the authentication provider, so that repeated
+ * logins for the same account skip loading the user and parsing its authorities. Entries are keyed
+ * by normalized username and are evicted once the cache is full, once the configured time-to-live
+ * elapses, or explicitly whenever the user is changed. <br>
+ * <br>
+ * Spring Security erases the password of the principal of every successful authentication, so the
+ * cache only ever hands out copies of the principals it holds.
+ */
+public class UserDetailsCache implements UserCache {
+
+  private final Cache<String, UserPrincipal> cache;
+
+  /**
+   * Constructor for UserDetailsCache.
+   *
+   * @param maximumSize - The maximum number of users to keep.
+   * @param ttlMillis - The maximum amount of time to keep a user, in milliseconds.
+   */
+  public UserDetailsCache(long maximumSize, long ttlMillis) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  /**
+   * Retrieves a copy of a cached user.
+   *
+   * @param username - The username of the user.
+   * @return A copy of the cached user, or null if the user is not cached.
+   */
+  @Override
+  public UserDetails getUserFromCache(String username) {
+    UserPrincipal cached = cache.getIfPresent(AppUser.normalize(username));
+    return cached == null ? null : copy(cached, username);
+  }
+
+  /**
+   * Caches a copy of a user. Only UserPrincipals are cached.
+   *
+   * @param user - The user to cache.
+   */
+  @Override
+  public void putUserInCache(UserDetails user) {
+    if (user instanceof UserPrincipal && user.getPassword() != null) {
+      UserPrincipal principal = (UserPrincipal) user;
+      cache.put(AppUser.normalize(principal.getUsername()), copy(principal, user.getUsername()));
+    }
+  }
+
+  /**
+   * Evicts a user.
+   *
+   * @param username - The username of the user to evict.
+   */
+  @Override
+  public void removeUserFromCache(String username) {
+    if (username != null) {
+      cache.invalidate(AppUser.normalize(username));
+    }
+  }
+
+  private static UserPrincipal copy(UserPrincipal principal, String username) {
+    AppUser user = principal.getAppUser();
+    AppUser userCopy =
+        new AppUser(
+            user.getId(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getEmail(),
+            user.getUsername(),
+            user.getPassword(),
+            user.getRole());
+    return new UserPrincipal(
+        userCopy, username, principal.getPassword(), principal.getAuthorities());
+  }
+}
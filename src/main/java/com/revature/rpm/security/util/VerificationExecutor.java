@@ -0,0 +1,130 @@
+package com.revature.rpm.security.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Runs credential verification on a dedicated, bounded thread pool so that no more passwords are
+ * hashed at once than there are processors. The request thread still waits for the result, for the
+ * time spent in the queue as well as the hashing itself, so the pool limits CPU concurrency rather
+ * than freeing request threads. What the queue bounds is how many request threads a login burst
+ * can hold: once it is full, further requests are rejected immediately. <br>
+ * <br>
+ * Records the following metrics: <br>
+ * - auth.verification.wait: Time spent waiting in the queue for a verification thread.<br>
+ * - auth.verification.execution: Time spent loading the user and verifying the password.<br>
+ * - auth.verification.rejected: Number of requests rejected because the queue was full.<br>
+ * - auth.verification.queue.depth: Number of requests currently waiting in the queue.
+ */
+public class VerificationExecutor {
+
+  private final ThreadPoolExecutor executor;
+
+  private final Timer waitTimer;
+  private final Timer executionTimer;
+  private final Counter rejectedCounter;
+
+  /**
+   * Constructor for VerificationExecutor.
+   *
+   * @param poolSize - The number of verification threads.
+   * @param queueCapacity - The maximum number of requests waiting for a verification thread.
+   * @param registry - The registry that verification metrics are recorded to.
+   */
+  public VerificationExecutor(int poolSize, int queueCapacity, MeterRegistry registry) {
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new VerificationThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    this.waitTimer = registry.timer("auth.verification.wait");
+    this.executionTimer = registry.timer("auth.verification.execution");
+    this.rejectedCounter = registry.counter("auth.verification.rejected");
+    registry.gauge("auth.verification.queue.depth", executor, e -> e.getQueue().size());
+  }
+
+  /**
+   * Authenticates a request on the verification pool, blocking the calling thread until the
+   * result is available.
+   *
+   * @param authManager - The AuthenticationManager performing the verification.
+   * @param authRequest - The authentication request to verify.
+   * @return The authenticated token.
+   * @throws RejectedExecutionException if the verification queue is full.
+   * @throws org.springframework.security.core.AuthenticationException if authentication fails.
+   */
+  public Authentication authenticate(AuthenticationManager authManager, Authentication authRequest) {
+
+    long submitted = System.nanoTime();
+    Future<Authentication> result;
+
+    try {
+      result =
+          executor.submit(
+              () -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                  return authManager.authenticate(authRequest);
+                } finally {
+                  executionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+              });
+    } catch (RejectedExecutionException ree) {
+      rejectedCounter.increment();
+      throw ree;
+    }
+
+    try {
+      return result.get();
+    } catch (InterruptedException ie) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new AuthenticationServiceException("Interrupted while verifying credentials", ie);
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new AuthenticationServiceException("Could not verify credentials", cause);
+    }
+  }
+
+  /** Stops accepting new verifications. Invoked by Spring when the application shuts down. */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /** Names verification threads so that they can be told apart in thread dumps. */
+  private static class VerificationThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "auth-verification-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
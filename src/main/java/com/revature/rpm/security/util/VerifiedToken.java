@@ -0,0 +1,92 @@
+package com.revature.rpm.security.util;
+
+import java.util.Collections;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+
+/** The already verified contents of a JWT, as needed to authenticate a request. */
+public class VerifiedToken {
+
+  private final String username;
+  private final List<GrantedAuthority> authorities;
+  private final String id;
+  private final long issuedAt;
+  private final long expiresAt;
+
+  /**
+   * Constructor for VerifiedToken.
+   *
+   * @param username - The subject of the token.
+   * @param authorities - The authorities claimed by the token.
+   * @param id - The ID (jti claim) of the token, or null if it has none.
+   * @param issuedAt - When the token was issued, in epoch milliseconds.
+   * @param expiresAt - When the token expires, in epoch milliseconds.
+   */
+  public VerifiedToken(
+      String username,
+      List<GrantedAuthority> authorities,
+      String id,
+      long issuedAt,
+      long expiresAt) {
+    this.username = username;
+    this.authorities = Collections.unmodifiableList(authorities);
+    this.id = id;
+    this.issuedAt = issuedAt;
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * username getter method.
+   *
+   * @return username associated with this instance of VerifiedToken.
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * authorities getter method.
+   *
+   * @return The unmodifiable authorities associated with this instance of VerifiedToken.
+   */
+  public List<GrantedAuthority> getAuthorities() {
+    return authorities;
+  }
+
+  /**
+   * id getter method.
+   *
+   * @return id associated with this instance of VerifiedToken.
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * issuedAt getter method.
+   *
+   * @return issuedAt associated with this instance of VerifiedToken.
+   */
+  public long getIssuedAt() {
+    return issuedAt;
+  }
+
+  /**
+   * expiresAt getter method.
+   *
+   * @return expiresAt associated with this instance of VerifiedToken.
+   */
+  public long getExpiresAt() {
+    return expiresAt;
+  }
+
+  /**
+   * Determines whether or not this token has expired.
+   *
+   * @param nowMillis - The current time, in epoch milliseconds.
+   * @return True if expired. Otherwise, false.
+   */
+  public boolean isExpired(long nowMillis) {
+    return expiresAt <= nowMillis;
+  }
+}
@@ -0,0 +1,153 @@
+package com.revature.rpm.security.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.revature.rpm.entities.AppUser;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of tokens whose signature has already been verified, so that a token replayed
+ * on many requests only has its signature checked and its claims parsed once. Entries are keyed by
+ * the SHA-256 digest of the token and are evicted once the cache is full, once the configured
+ * time-to-live elapses, or once the token itself expires, whichever comes first.
+ */
+public class VerifiedTokenCache {
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+              throw new IllegalStateException(e);
+            }
+          });
+
+  private static final ThreadLocal<byte[]> CHUNKS = ThreadLocal.withInitial(() -> new byte[256]);
+
+  private final Cache<ByteBuffer, VerifiedToken> cache;
+
+  /**
+   * Constructor for VerifiedTokenCache.
+   *
+   * @param maximumSize - The maximum number of tokens to keep.
+   * @param ttlMillis - The maximum amount of time to keep a token, in milliseconds.
+   */
+  public VerifiedTokenCache(long maximumSize, long ttlMillis) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry(TimeUnit.MILLISECONDS.toNanos(ttlMillis)))
+            .build();
+  }
+
+  /**
+   * Retrieves a previously verified token.
+   *
+   * @param token - The raw token (without prefix), or a view of it.
+   * @return The verified token, or null if it is unknown, has expired or is not ASCII.
+   */
+  public VerifiedToken get(CharSequence token) {
+    ByteBuffer key = digest(token);
+    if (key == null) {
+      return null;
+    }
+    VerifiedToken verified = cache.getIfPresent(key);
+    if (verified != null && verified.isExpired(System.currentTimeMillis())) {
+      cache.invalidate(key);
+      return null;
+    }
+    return verified;
+  }
+
+  /**
+   * Stores a token whose signature has been verified. Tokens that are not ASCII are not stored.
+   *
+   * @param token - The raw token (without prefix), or a view of it.
+   * @param verified - The verified contents of the token.
+   */
+  public void put(CharSequence token, VerifiedToken verified) {
+    ByteBuffer key = digest(token);
+    if (key != null) {
+      cache.put(key, verified);
+    }
+  }
+
+  /**
+   * Removes every token issued to a user, so that their tokens are verified again (e.g. after
+   * their role was changed).
+   *
+   * @param username - The username of the user, regardless of case.
+   */
+  public void invalidateUser(String username) {
+    String normalized = AppUser.normalize(username);
+    cache
+        .asMap()
+        .values()
+        .removeIf(verified -> AppUser.normalize(verified.getUsername()).equals(normalized));
+  }
+
+  /** Removes all tokens from the cache. */
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Digests a token through a small per-thread buffer, so that a view of a token is not copied.
+   * Valid tokens are ASCII, so each char is digested as a single byte. Tokens with any other char
+   * are never cached, as their chars would otherwise collide with the ASCII chars of the same low
+   * byte.
+   *
+   * @return The digest, or null if the token is not ASCII.
+   */
+  private static ByteBuffer digest(CharSequence token) {
+    MessageDigest sha256 = SHA_256.get();
+    byte[] chunk = CHUNKS.get();
+    int length = token.length();
+    for (int start = 0; start < length; start += chunk.length) {
+      int count = Math.min(chunk.length, length - start);
+      for (int i = 0; i < count; i++) {
+        char c = token.charAt(start + i);
+        if (c > 0x7F) {
+          sha256.reset();
+          return null;
+        }
+        chunk[i] = (byte) c;
+      }
+      sha256.update(chunk, 0, count);
+    }
+    return ByteBuffer.wrap(sha256.digest());
+  }
+
+  /** Expires an entry after the time-to-live or when its token expires, whichever is sooner. */
+  private static class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+    private final long ttlNanos;
+
+    TokenExpiry(long ttlNanos) {
+      this.ttlNanos = ttlNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+      long remaining = value.getExpiresAt() - System.currentTimeMillis();
+      return Math.max(0, Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remaining)));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
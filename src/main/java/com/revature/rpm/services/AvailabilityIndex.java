@@ -0,0 +1,210 @@
+package com.revature.rpm.services;
+
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.repositories.UserRepository.UserIdentifiers;
+import com.revature.rpm.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Holds in-memory Bloom filters over all registered usernames and email addresses, allowing most
+ * availability checks (which are for values that are not taken) to be answered without querying
+ * the database. Only values that might be taken fall through to the repository. Values are
+ * normalized the same way as the lookup columns of RPM_USERS. <br>
+ * <br>
+ * The filters are built from the database when the application starts and rebuilt periodically
+ * (rpm.availability.rebuild-interval), or sooner once enough users have been added or removed that
+ * the filters have become inaccurate. Users registered through any instance are added once their
+ * change arrives on the invalidation bus, which may lag behind the database, so the filters are
+ * only consulted by availability checks, never by the uniqueness checks made when a user is
+ * created or updated. Until the first build completes every value is treated as possibly taken.
+ */
+@Component
+public class AvailabilityIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+  /** The number of milliseconds after which the filters are rebuilt regardless of changes. */
+  @Value("${rpm.availability.rebuild-interval:600000}")
+  private long rebuildInterval;
+
+  /** The false positive probability the filters are sized for. */
+  @Value("${rpm.availability.fpp:0.01}")
+  private double fpp;
+
+  private UserRepository repo;
+
+  private final Counter filtered;
+  private final Counter queried;
+
+  private final Object lock = new Object();
+
+  private volatile Filters filters;
+
+  /** Values added while a rebuild is reading the database; guarded by lock. */
+  private List<String[]> pending;
+
+  private final AtomicLong removed = new AtomicLong();
+
+  @Autowired
+  public AvailabilityIndex(UserRepository repo, MeterRegistry registry) {
+    this.repo = repo;
+    this.filtered = registry.counter("users.availability.checks", "result", "filtered");
+    this.queried = registry.counter("users.availability.checks", "result", "queried");
+  }
+
+  /**
+   * Checks whether a username might be taken.
+   *
+   * @param username - The username to check.
+   * @return False if the username is definitely available. Otherwise, true.
+   */
+  public boolean mightContainUsername(String username) {
+    Filters current = filters;
+    return record(current == null || current.usernames.mightContain(AppUser.normalize(username)));
+  }
+
+  /**
+   * Checks whether an email address might be taken.
+   *
+   * @param email - The email address to check.
+   * @return False if the email address is definitely available. Otherwise, true.
+   */
+  public boolean mightContainEmail(String email) {
+    Filters current = filters;
+    return record(current == null || current.emails.mightContain(AppUser.normalize(email)));
+  }
+
+  /**
+   * Adds a username and email address that are about to be persisted. Adding a value whose
+   * transaction is later rolled back only results in a false positive until the next rebuild.
+   *
+   * @param username - The username to add, or null if unchanged.
+   * @param email - The email address to add, or null if unchanged.
+   */
+  public void add(String username, String email) {
+    username = AppUser.normalize(username);
+    email = AppUser.normalize(email);
+    synchronized (lock) {
+      Filters current = filters;
+      if (current != null) {
+        current.add(username, email);
+      }
+      if (pending != null) {
+        pending.add(new String[] {username, email});
+      }
+    }
+  }
+
+  /**
+   * Notes that a username or email address is no longer taken. Values cannot be removed from a
+   * Bloom filter, so they remain possibly taken until the filters are rebuilt.
+   */
+  public void remove() {
+    removed.incrementAndGet();
+  }
+
+  /**
+   * Rebuilds the filters if they have not been built yet, if the rebuild interval has elapsed, or
+   * if more users have been added or removed than the filters can absorb. Checked once a minute by
+   * default (rpm.availability.check-interval).
+   */
+  @Transactional(readOnly = true)
+  @Scheduled(fixedDelayString = "${rpm.availability.check-interval:60000}")
+  public void refresh() {
+    if (isRebuildDue()) {
+      rebuild();
+    }
+  }
+
+  private boolean isRebuildDue() {
+    Filters current = filters;
+    return current == null
+        || System.currentTimeMillis() - current.builtAt >= rebuildInterval
+        || current.count.get() > current.usernames.getExpectedInsertions()
+        || removed.get() > current.count.get() / 10;
+  }
+
+  /**
+   * Reads every username and email address from the database into new filters, which replace the
+   * current filters once complete. Values added while the database is being read are replayed into
+   * the new filters before they are published, so no value is ever missing from the filters.
+   */
+  private void rebuild() {
+
+    synchronized (lock) {
+      pending = new ArrayList<>();
+    }
+
+    try {
+
+      long start = System.currentTimeMillis();
+      long removedBefore = removed.get();
+
+      Filters rebuilt = new Filters(Math.max(2 * repo.count(), 1024), fpp, start);
+      try (Stream<UserIdentifiers> users = repo.streamIdentifiersBy()) {
+        users.forEach(user -> rebuilt.add(user.getUsername(), user.getEmail()));
+      }
+
+      synchronized (lock) {
+        pending.forEach(values -> rebuilt.add(values[0], values[1]));
+        filters = rebuilt;
+      }
+
+      removed.addAndGet(-removedBefore);
+      logger.info(
+          "Availability filters rebuilt with {} users in {} ms",
+          rebuilt.count.get(),
+          System.currentTimeMillis() - start);
+
+    } catch (RuntimeException e) {
+      logger.warn("Availability filters could not be rebuilt: {}", e.toString());
+    } finally {
+      synchronized (lock) {
+        pending = null;
+      }
+    }
+  }
+
+  private boolean record(boolean mightContain) {
+    (mightContain ? queried : filtered).increment();
+    return mightContain;
+  }
+
+  /** The username and email filters, which are always built and replaced together. */
+  private static class Filters {
+
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final long builtAt;
+    private final AtomicLong count = new AtomicLong();
+
+    Filters(long expectedInsertions, double fpp, long builtAt) {
+      this.usernames = new BloomFilter(expectedInsertions, fpp);
+      this.emails = new BloomFilter(expectedInsertions, fpp);
+      this.builtAt = builtAt;
+    }
+
+    void add(String username, String email) {
+      if (username != null) {
+        usernames.put(username);
+      }
+      if (email != null) {
+        emails.put(email);
+      }
+      count.incrementAndGet();
+    }
+  }
+}
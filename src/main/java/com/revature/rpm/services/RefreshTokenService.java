@@ -0,0 +1,212 @@
+package com.revature.rpm.services;
+
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.entities.RefreshToken;
+import com.revature.rpm.exceptions.InvalidRefreshTokenException;
+import com.revature.rpm.invalidation.UserChangeType;
+import com.revature.rpm.invalidation.UserChangedEvent;
+import com.revature.rpm.repositories.RefreshTokenRepository;
+import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.util.Redacted;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and rotates refresh tokens, which allow clients to obtain new (short-lived) JWTs without
+ * their password being verified again. <br>
+ * <br>
+ * A refresh token can be used once. Using it issues a new refresh token of the same family, which
+ * expires security.jwt.refresh.expiration milliseconds later, but never after the family itself
+ * expires (security.jwt.refresh.max-lifetime after login). Presenting a token that was already used
+ * means that it was stolen by either the client or whoever presented it first, so the whole family
+ * is revoked and the client has to log in again. <br>
+ * <br>
+ * The tokens of a user are revoked when the user is deleted, and expired tokens are purged once an
+ * hour (security.jwt.refresh.purge-interval).
+ */
+@Service
+public class RefreshTokenService {
+
+  private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+              throw new IllegalStateException(e);
+            }
+          });
+
+  private RefreshTokenRepository repo;
+  private UserRepository userRepo;
+  private JwtConfig jwtConfig;
+
+  @Autowired
+  public RefreshTokenService(
+      RefreshTokenRepository repo, UserRepository userRepo, JwtConfig jwtConfig) {
+    this.repo = repo;
+    this.userRepo = userRepo;
+    this.jwtConfig = jwtConfig;
+  }
+
+  /**
+   * Issues the first refresh token of a new family, upon a successful login.
+   *
+   * @param user - The user who logged in.
+   * @return The refresh token, which is only ever known to the client.
+   */
+  @Redacted
+  @Transactional
+  public String issue(AppUser user) {
+    long now = System.currentTimeMillis();
+    return save(
+        UUID.randomUUID().toString(),
+        user.getId(),
+        now,
+        now + jwtConfig.getRefreshMaxLifetime());
+  }
+
+  /**
+   * Exchanges a refresh token for a new one of the same family. If the token was already used, its
+   * family is revoked.
+   *
+   * @param token - The refresh token presented by the client.
+   * @return The user the token was issued to, along with the new refresh token.
+   * @throws InvalidRefreshTokenException if the token is missing, unknown, expired or was already
+   *     used, or if its user no longer exists.
+   */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public Rotation rotate(String token) {
+
+    if (token == null || token.trim().equals("")) {
+      throw new InvalidRefreshTokenException("Refresh token is missing");
+    }
+
+    RefreshToken current = repo.findByTokenHash(hash(token));
+    if (current == null) {
+      throw new InvalidRefreshTokenException("Refresh token is invalid");
+    }
+
+    long now = System.currentTimeMillis();
+    if (current.getExpiresAt() <= now) {
+      throw new InvalidRefreshTokenException("Refresh token has expired");
+    }
+
+    if (current.isRotated() || repo.markRotated(current.getId()) == 0) {
+      int revoked = repo.deleteFamily(current.getFamily());
+      logger.warn(
+          "Refresh token of user {} was reused, revoked {} tokens of its family",
+          current.getUserId(),
+          revoked);
+      throw new InvalidRefreshTokenException("Refresh token was already used", true);
+    }
+
+    AppUser user = userRepo.findById(current.getUserId()).orElse(null);
+    if (user == null) {
+      repo.deleteFamily(current.getFamily());
+      throw new InvalidRefreshTokenException("Refresh token is invalid");
+    }
+
+    String rotated = save(current.getFamily(), user.getId(), now, current.getFamilyExpiresAt());
+    return new Rotation(user, rotated);
+  }
+
+  /**
+   * Revokes a refresh token along with the rest of its family, e.g. upon logout. Unknown tokens are
+   * ignored.
+   *
+   * @param token - The refresh token presented by the client.
+   */
+  @Transactional
+  public void revoke(String token) {
+    if (token != null) {
+      RefreshToken current = repo.findByTokenHash(hash(token));
+      if (current != null) {
+        repo.deleteFamily(current.getFamily());
+      }
+    }
+  }
+
+  /**
+   * Revokes the refresh tokens of a user when the user is deleted. Runs within the transaction that
+   * deleted the user.
+   *
+   * @param event - A change to a user.
+   */
+  @EventListener
+  public void onUserChanged(UserChangedEvent event) {
+    if (event.getType() == UserChangeType.DELETED && event.getUserId() != null) {
+      repo.deleteByUser(event.getUserId());
+    }
+  }
+
+  /** Deletes every refresh token that has expired. */
+  @Transactional
+  @Scheduled(fixedDelayString = "${security.jwt.refresh.purge-interval:3600000}")
+  public void purgeExpired() {
+    int purged = repo.deleteExpired(System.currentTimeMillis());
+    if (purged > 0) {
+      logger.info("Purged {} expired refresh tokens", purged);
+    }
+  }
+
+  private String save(String family, Integer userId, long now, long familyExpiresAt) {
+    byte[] bytes = new byte[32];
+    RANDOM.nextBytes(bytes);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    long expiresAt = Math.min(now + jwtConfig.getRefreshExpiration(), familyExpiresAt);
+    repo.save(new RefreshToken(hash(token), family, userId, now, expiresAt, familyExpiresAt));
+    return token;
+  }
+
+  private static String hash(String token) {
+    byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+  }
+
+  /** The outcome of a successful rotation. */
+  public static class Rotation {
+
+    private final AppUser user;
+    private final String token;
+
+    Rotation(AppUser user, String token) {
+      this.user = user;
+      this.token = token;
+    }
+
+    /**
+     * user getter method.
+     *
+     * @return The user the refresh token was issued to.
+     */
+    public AppUser getUser() {
+      return user;
+    }
+
+    /**
+     * token getter method.
+     *
+     * @return The new refresh token.
+     */
+    public String getToken() {
+      return token;
+    }
+  }
+}
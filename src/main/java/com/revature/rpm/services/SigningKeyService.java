@@ -0,0 +1,380 @@
+package com.revature.rpm.services;
+
+import com.revature.rpm.entities.JwtSigningKey;
+import com.revature.rpm.repositories.JwtSigningKeyRepository;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.security.util.SigningKey;
+import com.revature.rpm.security.util.SigningKeyRing;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provides the keys JWTs are signed and verified with. <br>
+ * <br>
+ * By default (security.jwt.signing.algorithm=HS512), JWTs are signed with the shared secret, and no
+ * keys are published. With RS256 or ES256, JWTs are signed with key pairs that are shared by every
+ * node through the database, where their private keys are stored encrypted with the secret. Each
+ * key pair signs for security.jwt.signing.rotation-interval milliseconds. The next key pair is
+ * created security.jwt.signing.prepublish milliseconds before the current one retires, and retired
+ * key pairs are kept until every JWT they signed has expired, so the public keys that other
+ * services fetch always cover every valid JWT. <br>
+ * <br>
+ * Every node reloads the key pairs, and creates the next one if it is due, once a minute
+ * (security.jwt.signing.refresh-interval). A JWT signed with a key pair that is not loaded yet
+ * triggers an early reload, at most once every few seconds. Should two nodes create the next key
+ * pair at the same time, both are published, and every node signs with the same one of them.
+ */
+@Service
+public class SigningKeyService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SigningKeyService.class);
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static final long MIN_RELOAD_INTERVAL = 5000;
+
+  private static final int GCM_IV_LENGTH = 12;
+  private static final int GCM_TAG_LENGTH = 128;
+
+  private JwtSigningKeyRepository repo;
+  private JwtConfig jwtConfig;
+
+  private final SignatureAlgorithm algorithm;
+  private final long prepublish;
+
+  private volatile SigningKeyRing ring;
+  private volatile long lastReload;
+
+  @Autowired
+  public SigningKeyService(JwtSigningKeyRepository repo, JwtConfig jwtConfig) {
+    this.repo = repo;
+    this.jwtConfig = jwtConfig;
+
+    String name = jwtConfig.getSigningAlgorithm();
+    if (SignatureAlgorithm.HS512.getValue().equals(name)) {
+      this.algorithm = SignatureAlgorithm.HS512;
+      this.ring =
+          new SigningKeyRing(Collections.singletonList(SigningKey.hmac(jwtConfig.getSecret())));
+    } else if (SignatureAlgorithm.RS256.getValue().equals(name)) {
+      this.algorithm = SignatureAlgorithm.RS256;
+    } else if (SignatureAlgorithm.ES256.getValue().equals(name)) {
+      this.algorithm = SignatureAlgorithm.ES256;
+    } else {
+      throw new IllegalStateException("Unknown JWT signing algorithm: " + name);
+    }
+
+    this.prepublish =
+        Math.min(jwtConfig.getSigningPrepublish(), jwtConfig.getSigningRotationInterval() / 2);
+  }
+
+  /**
+   * Retrieves the key that JWTs are currently signed with.
+   *
+   * @return The current key.
+   * @throws IllegalStateException if no key could be created.
+   */
+  public SigningKey getCurrent() {
+    long now = System.currentTimeMillis();
+    SigningKey key = ring().getCurrent(now);
+    if (key == null) {
+      rotate();
+      key = ring.getCurrent(now);
+    }
+    if (key == null) {
+      throw new IllegalStateException("No key to sign JWTs with");
+    }
+    return key;
+  }
+
+  /**
+   * Resolves the key a JWT is verified with, by the header of the JWT. Keys are only resolved for
+   * the algorithm they are used with, and JWTs signed with the shared secret are only accepted
+   * while it is the configured signing algorithm.
+   *
+   * @param kid - The ID of the key (kid header), or null if the JWT has none.
+   * @param alg - The algorithm the JWT was signed with (alg header).
+   * @return The key, or null if the JWT cannot be verified.
+   */
+  public SigningKey resolve(String kid, String alg) {
+    SigningKey key = resolveById(kid);
+    if (key == null || !key.getAlgorithm().getValue().equals(alg)) {
+      return null;
+    }
+    return key;
+  }
+
+  /**
+   * Resolves the key a token is verified with, by the ID of the key alone. Keys that are not
+   * loaded yet are reloaded, as for resolve(kid, alg).
+   *
+   * @param kid - The ID of the key, or null for the shared secret.
+   * @return The key, or null if the token cannot be verified.
+   */
+  public SigningKey resolveById(String kid) {
+    SigningKey key = ring().get(kid);
+
+    if (key == null && kid != null && algorithm != SignatureAlgorithm.HS512) {
+      long now = System.currentTimeMillis();
+      if (now - lastReload >= MIN_RELOAD_INTERVAL) {
+        reload(now);
+        key = ring.get(kid);
+      }
+    }
+
+    return key;
+  }
+
+  /**
+   * Resolves the key a JWT is verified with, by the encoded header of the JWT, without parsing it.
+   * Only headers encoded exactly as this service encodes them are resolved.
+   *
+   * @param token - The compact JWT.
+   * @return The key, or null if the header of the JWT has to be parsed to resolve its key.
+   */
+  public SigningKey resolve(String token) {
+    return ring().getByHeader(token);
+  }
+
+  /**
+   * Retrieves the public keys JWTs are currently verified with, for other services to verify JWTs
+   * with.
+   *
+   * @return The members of a JSON Web Key Set, which has no keys if JWTs are signed with the shared
+   *     secret.
+   */
+  public Map<String, Object> getJwks() {
+    return ring().getJwks();
+  }
+
+  /**
+   * Retrieves how long other services may cache the public keys for: half of the time the next
+   * key is published before it starts signing.
+   *
+   * @return The time, in milliseconds.
+   */
+  public long getJwksMaxAge() {
+    return prepublish / 2;
+  }
+
+  /**
+   * Creates the next key pair once it is due, deletes the key pairs that expired, and reloads the
+   * key pairs shared by every node. Has no effect if JWTs are signed with the shared secret.
+   */
+  @Scheduled(fixedDelayString = "${security.jwt.signing.refresh-interval:60000}")
+  public synchronized void rotate() {
+
+    if (algorithm == SignatureAlgorithm.HS512) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    repo.deleteExpired(now);
+
+    List<SigningKey> keys = load(now);
+    SigningKey current = new SigningKeyRing(keys).getCurrent(now);
+
+    if (current == null || current.getRetiresAt() <= now) {
+      keys.add(create(now));
+    } else {
+      long latestRetiresAt = current.getRetiresAt();
+      for (SigningKey key : keys) {
+        if (key.getSigningKey() != null) {
+          latestRetiresAt = Math.max(latestRetiresAt, key.getRetiresAt());
+        }
+      }
+      if (latestRetiresAt - now <= prepublish) {
+        keys.add(create(latestRetiresAt));
+      }
+    }
+
+    ring = new SigningKeyRing(keys);
+    lastReload = now;
+  }
+
+  private SigningKeyRing ring() {
+    SigningKeyRing current = ring;
+    if (current == null) {
+      rotate();
+      current = ring;
+    }
+    return current;
+  }
+
+  private synchronized void reload(long now) {
+    if (now - lastReload >= MIN_RELOAD_INTERVAL) {
+      ring = new SigningKeyRing(load(now));
+      lastReload = now;
+    }
+  }
+
+  /**
+   * Loads the key pairs that have not expired. Private keys are only decrypted for the configured
+   * algorithm, so key pairs of any other algorithm are only used to verify JWTs.
+   *
+   * @param now - The current time, in epoch milliseconds.
+   * @return The loaded keys.
+   */
+  private List<SigningKey> load(long now) {
+    List<SigningKey> keys = new ArrayList<>();
+
+    for (JwtSigningKey stored : repo.findByExpiresAtGreaterThanOrderByActivatesAtAsc(now)) {
+
+      SignatureAlgorithm keyAlgorithm;
+      PublicKey publicKey;
+      try {
+        keyAlgorithm = SignatureAlgorithm.forName(stored.getAlgorithm());
+        publicKey =
+            keyFactory(keyAlgorithm)
+                .generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(stored.getPublicKey())));
+      } catch (RuntimeException | GeneralSecurityException e) {
+        logger.warn("Skipped JWT signing key {}: {}", stored.getKid(), e.toString());
+        continue;
+      }
+
+      PrivateKey privateKey = null;
+      if (keyAlgorithm == algorithm) {
+        try {
+          privateKey =
+              keyFactory(keyAlgorithm)
+                  .generatePrivate(new PKCS8EncodedKeySpec(open(stored.getPrivateKey())));
+        } catch (RuntimeException | GeneralSecurityException e) {
+          logger.warn(
+              "Private key of JWT signing key {} cannot be decrypted with the current secret",
+              stored.getKid());
+        }
+      }
+
+      keys.add(
+          new SigningKey(
+              stored.getKid(),
+              keyAlgorithm,
+              privateKey,
+              publicKey,
+              stored.getActivatesAt(),
+              stored.getRetiresAt()));
+    }
+
+    return keys;
+  }
+
+  /**
+   * Generates and stores a new key pair. The key pair is kept after it retires until every JWT it
+   * signed has expired, plus the time it was published in advance, to allow for clocks being off
+   * between nodes.
+   *
+   * @param activatesAt - When the key pair starts signing, in epoch milliseconds.
+   * @return The new key.
+   */
+  private SigningKey create(long activatesAt) {
+    KeyPair pair;
+    String sealed;
+    try {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance(keyType(algorithm));
+      if (algorithm.isEllipticCurve()) {
+        generator.initialize(new ECGenParameterSpec("secp256r1"), RANDOM);
+      } else {
+        generator.initialize(2048, RANDOM);
+      }
+      pair = generator.generateKeyPair();
+      sealed = seal(pair.getPrivate().getEncoded());
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to create a JWT signing key", e);
+    }
+
+    byte[] id = new byte[12];
+    RANDOM.nextBytes(id);
+    String kid = Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+
+    long retiresAt = activatesAt + jwtConfig.getSigningRotationInterval();
+    repo.save(
+        new JwtSigningKey(
+            kid,
+            algorithm.getValue(),
+            Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()),
+            sealed,
+            activatesAt,
+            retiresAt,
+            retiresAt + jwtConfig.getExpiration() + prepublish));
+
+    logger.info(
+        "Created JWT signing key {}, which signs from {} until {}", kid, activatesAt, retiresAt);
+
+    return new SigningKey(
+        kid, algorithm, pair.getPrivate(), pair.getPublic(), activatesAt, retiresAt);
+  }
+
+  private static KeyFactory keyFactory(SignatureAlgorithm keyAlgorithm)
+      throws GeneralSecurityException {
+    return KeyFactory.getInstance(keyType(keyAlgorithm));
+  }
+
+  private static String keyType(SignatureAlgorithm keyAlgorithm) throws GeneralSecurityException {
+    if (keyAlgorithm.isRsa()) {
+      return "RSA";
+    }
+    if (keyAlgorithm.isEllipticCurve()) {
+      return "EC";
+    }
+    throw new GeneralSecurityException("Not an asymmetric algorithm: " + keyAlgorithm);
+  }
+
+  /**
+   * Encrypts a private key with AES-GCM, using a key derived from the secret.
+   *
+   * @param privateKey - The encoded private key.
+   * @return The Base64 encoded IV followed by the ciphertext.
+   */
+  private String seal(byte[] privateKey) throws GeneralSecurityException {
+    byte[] iv = new byte[GCM_IV_LENGTH];
+    RANDOM.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, sealingKey(), new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+    byte[] sealed = cipher.doFinal(privateKey);
+    return Base64.getEncoder()
+        .encodeToString(
+            ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+  }
+
+  private byte[] open(String sealed) throws GeneralSecurityException {
+    byte[] bytes = Base64.getDecoder().decode(sealed);
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(
+        Cipher.DECRYPT_MODE,
+        sealingKey(),
+        new GCMParameterSpec(GCM_TAG_LENGTH, bytes, 0, GCM_IV_LENGTH));
+    return cipher.doFinal(bytes, GCM_IV_LENGTH, bytes.length - GCM_IV_LENGTH);
+  }
+
+  private SecretKeySpec sealingKey() throws GeneralSecurityException {
+    byte[] digest =
+        MessageDigest.getInstance("SHA-256")
+            .digest(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+    return new SecretKeySpec(digest, "AES");
+  }
+}
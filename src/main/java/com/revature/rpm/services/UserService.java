@@ -6,45 +6,112 @@ import com.revature.rpm.exceptions.BadRequestException;
 import com.revature.rpm.exceptions.UserCreationException;
 import com.revature.rpm.exceptions.UserNotFoundException;
 import com.revature.rpm.exceptions.UserUpdateException;
+import com.revature.rpm.invalidation.UserChangeType;
+import com.revature.rpm.invalidation.UserChangedEvent;
 import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.crypto.PasswordHashingEngine;
+import com.revature.rpm.security.util.RoleRegistry;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * A middle-man that sits between the controller and the repository (DAO) performing validation on
- * all user input received by the auth controller.
+ * all user input received by the auth controller. Every change made to a user is published as a
+ * UserChangedEvent, which is relayed to all nodes once the change commits so that they can evict
+ * their cached copies of the user.
  */
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
-  private BCryptPasswordEncoder encoder;
+  private PasswordHashingEngine encoder;
   private UserRepository repo;
+  private AvailabilityIndex availabilityIndex;
+  private ApplicationEventPublisher eventPublisher;
+  private RoleRegistry roleRegistry;
+
+  @PersistenceContext private EntityManager entityManager;
 
   @Autowired
-  public UserService(UserRepository repo, BCryptPasswordEncoder encoder) {
+  public UserService(
+      UserRepository repo,
+      PasswordHashingEngine encoder,
+      AvailabilityIndex availabilityIndex,
+      ApplicationEventPublisher eventPublisher,
+      RoleRegistry roleRegistry) {
     this.repo = repo;
     this.encoder = encoder;
+    this.availabilityIndex = availabilityIndex;
+    this.eventPublisher = eventPublisher;
+    this.roleRegistry = roleRegistry;
+  }
+
+  /**
+   * Retrieves a page of users from the database.
+   *
+   * @param pageable - The page number, size and sort order of the page to fetch.
+   * @return A Page containing the requested users.
+   */
+  @Transactional(readOnly = true)
+  public Page<AppUser> findAllUsers(Pageable pageable) {
+    return repo.findAll(pageable);
+  }
+
+  /**
+   * Retrieves the users following the provided ID, in order of ID. Unlike an offset page, the cost
+   * of fetching a slice does not grow with its depth.
+   *
+   * @param afterId - The ID of the last user of the previous slice (0 for the first slice).
+   * @param size - The maximum number of users to fetch.
+   * @return A Slice containing the requested users.
+   * @throws BadRequestException if the provided ID or size is invalid.
+   */
+  @Transactional(readOnly = true)
+  public Slice<AppUser> findUsersAfter(int afterId, int size) {
+
+    if (afterId < 0 || size <= 0) {
+      throw new BadRequestException("Invalid keyset pagination values provided");
+    }
+
+    return repo.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
   }
 
   /**
-   * Retrieves a list of all users from the database.
+   * Passes every user, in order of ID, to the provided action as they are read from the database.
+   * Each user is detached once handled so that the persistence context does not grow with the size
+   * of the table.
    *
-   * @return A List containing all registered users.
+   * @param action - Handles each user, e.g. by writing it to a response.
    */
-  @Transactional(readOnly = true, isolation = Isolation.SERIALIZABLE)
-  public List<AppUser> findAllUsers() {
-    return repo.findAll();
+  @Transactional(readOnly = true)
+  public void forEachUser(Consumer<AppUser> action) {
+    try (Stream<AppUser> users = repo.streamAllBy()) {
+      users.forEach(
+          user -> {
+            action.accept(user);
+            entityManager.detach(user);
+          });
+    }
   }
 
   /**
@@ -120,10 +187,13 @@ public class UserService implements UserDetailsService {
 
   /**
    * Validates a new user and creates the user in the database if the user's fields are valid.
+   * Uniqueness of the username and email address is enforced by the database, so the user is
+   * inserted without first checking whether either is in use.
    *
    * @param newUser - The new user to create in the database.
    * @return The persisted user with its generated id.
    * @throws BadRequestException if an invalid user is provided.
+   * @throws UserCreationException if the username or email address is already in use.
    */
   @Transactional(propagation = Propagation.REQUIRES_NEW)
   public AppUser addUser(AppUser newUser) {
@@ -132,16 +202,25 @@ public class UserService implements UserDetailsService {
       throw new BadRequestException("Invalid user object provided");
     }
 
-    if (!isUsernameAvailable(newUser.getUsername())) {
-      throw new UserCreationException("Username already in use");
-    }
+    newUser.setRole("ROLE_USER");
+    newUser.setPassword(encoder.encode(newUser.getPassword()));
 
-    if (!isEmailAddressAvailable(newUser.getEmail())) {
-      throw new UserCreationException("Email address already in use");
+    AppUser persistedUser;
+    try {
+      persistedUser = repo.saveAndFlush(newUser);
+    } catch (DataIntegrityViolationException dive) {
+      throw new UserCreationException(describeViolation(dive, "User could not be created"));
     }
 
-    newUser.setRole("ROLE_USER");
-    return repo.save(newUser);
+    eventPublisher.publishEvent(
+        new UserChangedEvent(
+            UserChangeType.CREATED,
+            persistedUser.getId(),
+            persistedUser.getUsername(),
+            persistedUser.getUsername(),
+            persistedUser.getEmail()));
+
+    return persistedUser;
   }
 
   /**
@@ -158,8 +237,8 @@ public class UserService implements UserDetailsService {
    *     - If updatedUser is null.
    * @throws UserUpdateException <br>
    *     - If no user with a matching ID is found. <br>
-   *     - If the updated username is already taken. <br>
-   *     - If the updated email is already taken. <br>
+   *     - If the updated username is already taken, including by a concurrent update. <br>
+   *     - If the updated email is already taken, including by a concurrent update. <br>
    * @throws SecurityException if a user attempts to update their role without admin privileges.
    */
   @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -185,22 +264,19 @@ public class UserService implements UserDetailsService {
       throw new UserUpdateException(unfe.getMessage());
     }
 
+    // Lookups are case-insensitive, so a change of case alone would find the user's own row
     String persistedUsername = userBeforeUpdate.getUsername();
     String updatedUsername = updatedUser.getUsername();
-    if (!persistedUsername.equals(updatedUsername)) {
-      AppUser u = repo.findUserByUsername(updatedUsername);
-      if (u != null) {
-        throw new UserUpdateException("Username is already in use");
-      }
+    if (!AppUser.normalize(persistedUsername).equals(AppUser.normalize(updatedUsername))
+        && repo.existsByUsername(updatedUsername)) {
+      throw new UserUpdateException("Username is already in use");
     }
 
     String persistedEmail = userBeforeUpdate.getEmail();
     String updatedEmail = updatedUser.getEmail();
-    if (!persistedEmail.equals(updatedEmail)) {
-      AppUser u = repo.findUserByEmail(updatedEmail);
-      if (u != null) {
-        throw new UserUpdateException("Username is already in use");
-      }
+    if (!AppUser.normalize(persistedEmail).equals(AppUser.normalize(updatedEmail))
+        && repo.existsByEmail(updatedEmail)) {
+      throw new UserUpdateException("Email address is already in use");
     }
 
     String persistedRole = userBeforeUpdate.getRole();
@@ -209,7 +285,29 @@ public class UserService implements UserDetailsService {
       throw new UserUpdateException("Could not update user role");
     }
 
-    repo.save(updatedUser);
+    // Only hash the password if it was actually changed, otherwise the stored hash is kept as-is
+    String persistedPw = userBeforeUpdate.getPassword();
+    String updatedPw = updatedUser.getPassword();
+    if (!updatedPw.equals(persistedPw)) {
+      updatedUser.setPassword(encoder.encode(updatedPw));
+    }
+
+    // The checks above only give a clearer message; the unique constraints settle concurrent updates
+    try {
+      repo.saveAndFlush(updatedUser);
+    } catch (DataIntegrityViolationException dive) {
+      throw new UserUpdateException(describeViolation(dive, "User could not be updated"));
+    }
+
+    UserChangeType change =
+        updatedRole.equals(persistedRole) ? UserChangeType.UPDATED : UserChangeType.ROLE_CHANGED;
+    eventPublisher.publishEvent(
+        new UserChangedEvent(
+            change,
+            updatedUser.getId(),
+            persistedUsername,
+            persistedUsername.equals(updatedUsername) ? null : updatedUsername,
+            persistedEmail.equals(updatedEmail) ? null : updatedEmail));
 
     return true;
   }
@@ -237,43 +335,76 @@ public class UserService implements UserDetailsService {
     }
 
     repo.delete(_user.get());
+
+    eventPublisher.publishEvent(
+        new UserChangedEvent(UserChangeType.DELETED, id, _user.get().getUsername(), null, null));
+
     return true;
   }
 
   /**
-   * Checks whether or not a username is available.
+   * Checks whether or not a username is available. Usernames that are definitely not taken are
+   * answered by the availability index without querying the database; otherwise only the existence
+   * of a matching row is queried and no user is loaded.
    *
    * @param username - The username to check.
-   * @return True if present. Otherwise, false.
+   * @return True if available. Otherwise, false.
+   * @throws BadRequestException if the provided username is invalid.
    */
   @Transactional(readOnly = true)
   public boolean isUsernameAvailable(String username) {
 
-    try {
-      findUserByUsername(username);
-    } catch (UserNotFoundException unfe) {
-      return true;
+    if (username == null || username.equals("")) {
+      throw new BadRequestException("Invalid username value provided");
     }
 
-    return false;
+    return !availabilityIndex.mightContainUsername(username) || !repo.existsByUsername(username);
   }
 
   /**
-   * Checks whether a user with the provided email already exists in the database.
+   * Checks whether or not an email address is available. Email addresses that are definitely not
+   * taken are answered by the availability index without querying the database; otherwise only the
+   * existence of a matching row is queried and no user is loaded.
    *
    * @param email - The email to check.
-   * @return True if present. Otherwise, false.
+   * @return True if available. Otherwise, false.
+   * @throws BadRequestException if the provided email address is invalid.
    */
   @Transactional(readOnly = true)
   public boolean isEmailAddressAvailable(String email) {
 
-    try {
-      findUserByEmail(email);
-    } catch (UserNotFoundException unfe) {
-      return true;
+    if (email == null || email.equals("")) {
+      throw new BadRequestException("Invalid email value provided");
+    }
+
+    return !availabilityIndex.mightContainEmail(email) || !repo.existsByEmail(email);
+  }
+
+  /**
+   * Describes which unique constraint of RPM_USERS was violated.
+   *
+   * @param dive - The exception raised by the violated constraint.
+   * @param fallback - The message used if the constraint is not a unique one.
+   * @return A message naming the field that is already in use.
+   */
+  private String describeViolation(DataIntegrityViolationException dive, String fallback) {
+
+    String constraint = null;
+    if (dive.getCause() instanceof ConstraintViolationException) {
+      constraint = ((ConstraintViolationException) dive.getCause()).getConstraintName();
     }
+    if (constraint == null) {
+      constraint = dive.getMostSpecificCause().getMessage();
+    }
+    constraint = constraint == null ? "" : constraint.toUpperCase(Locale.ROOT);
 
-    return false;
+    if (constraint.contains(AppUser.UNIQUE_USERNAME)) {
+      return "Username already in use";
+    }
+    if (constraint.contains(AppUser.UNIQUE_EMAIL)) {
+      return "Email address already in use";
+    }
+    return fallback;
   }
 
   /**
@@ -307,9 +438,22 @@ public class UserService implements UserDetailsService {
     return true;
   }
 
+  /**
+   * Determines whether or not a stored password value has already been hashed.
+   *
+   * @param password - The password value as stored in the data source.
+   * @return True if the value is a known hash. Otherwise, false.
+   */
+  public boolean isPasswordEncoded(String password) {
+    return encoder.isEncoded(password);
+  }
+
   /**
    * Overrides Spring Security's UserDetailService interface method to return a user from the data
-   * repository with the provided username.
+   * repository with the provided username. The stored password hash is handed to Spring Security
+   * as-is, so each authentication attempt performs exactly one hash verification. Users whose
+   * password is still stored in plaintext (e.g. those seeded by data.sql) have it hashed once and
+   * persisted the first time they are loaded.
    *
    * @param username - The username of a user requesting authentication.
    * @return UserDetails that provide core user information used by Spring Security for
@@ -318,6 +462,7 @@ public class UserService implements UserDetailsService {
    * @throws UsernameNotFoundException = if no user with the specified username is found.
    */
   @Override
+  @Transactional
   public UserDetails loadUserByUsername(String username) {
 
     if (username == null || username.equals("")) {
@@ -330,14 +475,48 @@ public class UserService implements UserDetailsService {
       throw new UsernameNotFoundException("Username: " + username + " not found");
     }
 
-    String userPw = retrievedUser.getPassword();
-    String encodedPw = encoder.encode(userPw);
+    String encodedPw = retrievedUser.getPassword();
+    if (!isPasswordEncoded(encodedPw)) {
+      encodedPw = encoder.encode(encodedPw);
+      retrievedUser.setPassword(encodedPw);
+      repo.save(retrievedUser);
+    }
+
     String userRole = retrievedUser.getRole();
-    retrievedUser.setPassword(encodedPw);
 
-    List<GrantedAuthority> grantedAuthorities =
-        AuthorityUtils.commaSeparatedStringToAuthorityList(userRole);
+    List<GrantedAuthority> grantedAuthorities = roleRegistry.getAuthorities(userRole);
 
     return new UserPrincipal(retrievedUser, username, encodedPw, grantedAuthorities);
   }
+
+  /**
+   * Overrides Spring Security's UserDetailsPasswordService interface method to persist a re-hashed
+   * password. Invoked after a successful login whose stored hash was produced with a stale
+   * algorithm or cost.
+   *
+   * @param user - The user whose password was re-hashed.
+   * @param newPassword - The new password hash.
+   * @return UserDetails containing the new password hash.
+   * @throws UsernameNotFoundException if the user no longer exists.
+   */
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+    AppUser retrievedUser = repo.findUserByUsername(user.getUsername());
+
+    if (retrievedUser == null) {
+      throw new UsernameNotFoundException("Username: " + user.getUsername() + " not found");
+    }
+
+    retrievedUser.setPassword(newPassword);
+    repo.save(retrievedUser);
+
+    eventPublisher.publishEvent(
+        new UserChangedEvent(
+            UserChangeType.UPDATED, retrievedUser.getId(), user.getUsername(), null, null));
+
+    return new UserPrincipal(
+        retrievedUser, user.getUsername(), newPassword, user.getAuthorities());
+  }
 }
@@ -0,0 +1,145 @@
+package com.revature.rpm.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over strings. A negative answer from mightContain is definite, while
+ * a positive answer is wrong with (approximately) the false positive probability the filter was
+ * sized for, as long as no more than the expected number of values have been added. Values cannot
+ * be removed. <br>
+ * <br>
+ * Each value is hashed only once; the k bit positions are derived from that hash by double
+ * hashing. Bits are set with compare-and-set, so values may be added and probed concurrently
+ * without locking.
+ */
+public class BloomFilter {
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray words;
+  private final long numBits;
+  private final int numHashes;
+  private final long expectedInsertions;
+
+  /**
+   * Constructor for BloomFilter that sizes the filter for the expected number of values and the
+   * desired false positive probability.
+   *
+   * @param expectedInsertions - The number of values expected to be added.
+   * @param fpp - The desired false positive probability, between 0 and 1 (exclusive).
+   * @throws IllegalArgumentException if either parameter is out of range.
+   */
+  public BloomFilter(long expectedInsertions, double fpp) {
+
+    if (expectedInsertions <= 0) {
+      throw new IllegalArgumentException("Expected insertions must be positive");
+    }
+
+    if (fpp <= 0 || fpp >= 1) {
+      throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+    }
+
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.min(Integer.MAX_VALUE, (bits + 63) >>> 6);
+
+    this.words = new AtomicLongArray(words);
+    this.numBits = (long) words << 6;
+    this.numHashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    this.expectedInsertions = expectedInsertions;
+  }
+
+  /**
+   * Adds a value to the filter.
+   *
+   * @param value - The value to add.
+   */
+  public void put(CharSequence value) {
+
+    long h1 = hash(value);
+    long h2 = mix(h1 ^ FNV_PRIME) | 1;
+
+    for (int i = 0; i < numHashes; i++) {
+
+      long bit = Math.floorMod(h1 + i * h2, numBits);
+      int index = (int) (bit >>> 6);
+      long mask = 1L << bit;
+
+      long word;
+      do {
+        word = words.get(index);
+        if ((word & mask) != 0) {
+          break;
+        }
+      } while (!words.compareAndSet(index, word, word | mask));
+    }
+  }
+
+  /**
+   * Checks whether a value might have been added to the filter.
+   *
+   * @param value - The value to check.
+   * @return False if the value was definitely never added. Otherwise, true.
+   */
+  public boolean mightContain(CharSequence value) {
+
+    long h1 = hash(value);
+    long h2 = mix(h1 ^ FNV_PRIME) | 1;
+
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(h1 + i * h2, numBits);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * expectedInsertions getter method.
+   *
+   * @return The number of values this filter was sized for.
+   */
+  public long getExpectedInsertions() {
+    return expectedInsertions;
+  }
+
+  /**
+   * numHashes getter method.
+   *
+   * @return The number of bit positions set for every value.
+   */
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  /**
+   * numBits getter method.
+   *
+   * @return The size of the filter in bits.
+   */
+  public long getNumBits() {
+    return numBits;
+  }
+
+  /** Hashes the characters of a value using FNV-1a, finished with a 64-bit mix. */
+  private static long hash(CharSequence value) {
+    long h = FNV_OFFSET;
+    for (int i = 0; i < value.length(); i++) {
+      h ^= value.charAt(i);
+      h *= FNV_PRIME;
+    }
+    return mix(h);
+  }
+
+  /** The finalization step of MurmurHash3, which spreads every input bit over the output. */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
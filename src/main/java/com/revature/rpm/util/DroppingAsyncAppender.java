@@ -0,0 +1,88 @@
+package com.revature.rpm.util;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An AsyncAppender whose drop policy is configurable and observable. Once the queue is nearly full
+ * (see discardingThreshold), events at or below discardLevel are dropped and counted, while more
+ * severe events are always queued, blocking the logging thread if necessary, so that warnings and
+ * errors are never lost. <br>
+ * <br>
+ * Configured in logback.xml, e.g: <br>
+ * &lt;appender class="com.revature.rpm.util.DroppingAsyncAppender"&gt; <br>
+ * &nbsp;&nbsp;&lt;discardLevel&gt;INFO&lt;/discardLevel&gt; <br>
+ * &lt;/appender&gt;
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+  private Level discardLevel = Level.INFO;
+
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Determines whether an event may be dropped while the queue is nearly full, counting it if so.
+   *
+   * @param event - The event being appended.
+   * @return True if the event's level is at or below the discard level and false otherwise.
+   */
+  @Override
+  protected boolean isDiscardable(ILoggingEvent event) {
+    boolean discardable =
+        discardLevel != Level.OFF
+            && !event.getLevel().isGreaterOrEqual(Level.WARN)
+            && discardLevel.isGreaterOrEqual(event.getLevel());
+    if (discardable) {
+      dropped.increment();
+    }
+    return discardable;
+  }
+
+  /**
+   * Prevents configuration from disabling blocking, as a non-blocking appender would drop warnings
+   * and errors once its queue is full.
+   *
+   * @param neverBlock - Ignored unless false.
+   */
+  @Override
+  public void setNeverBlock(boolean neverBlock) {
+    if (neverBlock) {
+      addWarn("neverBlock is not supported, as it would drop WARN and ERROR events");
+    }
+  }
+
+  /**
+   * discardLevel getter method.
+   *
+   * @return The most severe level that may be dropped. Never more severe than INFO.
+   */
+  public String getDiscardLevel() {
+    return discardLevel.toString();
+  }
+
+  /**
+   * discardLevel setter method.
+   *
+   * @param discardLevel - The most severe level that may be dropped (TRACE, DEBUG, INFO or OFF to
+   *     disable dropping). Levels more severe than INFO are treated as INFO.
+   */
+  public void setDiscardLevel(String discardLevel) {
+    Level level = Level.toLevel(discardLevel, Level.INFO);
+    if (level != Level.OFF && level.isGreaterOrEqual(Level.WARN)) {
+      addWarn("discardLevel " + level + " would drop WARN and ERROR events, using INFO instead");
+      level = Level.INFO;
+    }
+    this.discardLevel = level;
+  }
+
+  /**
+   * Retrieves the number of events dropped since this appender was created.
+   *
+   * @return The number of dropped events.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+}
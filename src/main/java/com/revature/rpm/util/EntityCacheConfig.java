@@ -0,0 +1,99 @@
+package com.revature.rpm.util;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the Hibernate second-level cache, which is backed by Caffeine through JCache. The
+ * following regions are created: <br>
+ * - users: AppUser entities by ID.<br>
+ * - users-by-username: The IDs of AppUsers by normalized username (their natural ID).<br>
+ * - default-query-results-region: The results of cacheable queries (e.g. lookups by email).<br>
+ * - default-update-timestamps-region: When each table was last written, which invalidates stale
+ * query results. Never expires.<br>
+ * <br>
+ * The user regions are bounded by rpm.cache.users.max-size entries and expire
+ * rpm.cache.users.ttl milliseconds after being written. Hibernate statistics are enabled so that
+ * cache hits and misses are published as metrics (hibernate.second.level.cache.requests).
+ */
+@Configuration
+public class EntityCacheConfig {
+
+  public static final String USERS_REGION = "users";
+  public static final String USERS_BY_USERNAME_REGION = "users-by-username";
+
+  private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+  private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+  /** The maximum number of entries held by each user region. */
+  @Value("${rpm.cache.users.max-size:10000}")
+  private long maxSize;
+
+  /** The number of milliseconds after which an entry of a user region expires. */
+  @Value("${rpm.cache.users.ttl:#{10*60*1000}}")
+  private long ttl;
+
+  /**
+   * A Spring bean that retrieves the JCache CacheManager holding the second-level cache regions
+   * when invoked.
+   *
+   * @return the Caffeine-backed CacheManager.
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager entityCacheManager() {
+
+    CacheManager cacheManager =
+        Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+    CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>();
+    bounded.setMaximumSize(OptionalLong.of(maxSize));
+    bounded.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttl)));
+    bounded.setStatisticsEnabled(true);
+
+    CaffeineConfiguration<Object, Object> eternal = new CaffeineConfiguration<>();
+    eternal.setStatisticsEnabled(true);
+
+    createIfMissing(cacheManager, USERS_REGION, bounded);
+    createIfMissing(cacheManager, USERS_BY_USERNAME_REGION, bounded);
+    createIfMissing(cacheManager, QUERY_RESULTS_REGION, bounded);
+    createIfMissing(cacheManager, UPDATE_TIMESTAMPS_REGION, eternal);
+
+    return cacheManager;
+  }
+
+  /**
+   * A Spring bean that retrieves a HibernatePropertiesCustomizer when invoked, which enables the
+   * second-level and query caches on top of entityCacheManager.
+   *
+   * @param entityCacheManager - The CacheManager holding the cache regions.
+   * @return a HibernatePropertiesCustomizer for the second-level cache.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+      properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    };
+  }
+
+  private static void createIfMissing(
+      CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> config) {
+    if (cacheManager.getCache(region) == null) {
+      cacheManager.createCache(region, config);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.revature.rpm.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the state of every DroppingAsyncAppender attached to the root logger: <br>
+ * - logging.events.dropped: Number of events dropped because the appender's queue was full.<br>
+ * - logging.queue.size: Number of events waiting to be written.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+      return;
+    }
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    Iterator<Appender<ILoggingEvent>> appenders =
+        context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+
+    while (appenders.hasNext()) {
+
+      Appender<ILoggingEvent> appender = appenders.next();
+      if (!(appender instanceof DroppingAsyncAppender)) {
+        continue;
+      }
+
+      DroppingAsyncAppender async = (DroppingAsyncAppender) appender;
+
+      FunctionCounter.builder(
+              "logging.events.dropped", async, DroppingAsyncAppender::getDroppedCount)
+          .tag("appender", async.getName())
+          .register(registry);
+
+      Gauge.builder("logging.queue.size", async, DroppingAsyncAppender::getNumberOfElementsInQueue)
+          .tag("appender", async.getName())
+          .register(registry);
+    }
+  }
+}
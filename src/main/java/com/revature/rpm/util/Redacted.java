@@ -0,0 +1,17 @@
+package com.revature.rpm.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method whose return value must never be logged, such as a method returning a token in
+ * clear. The TracingAspect still logs that such a method was invoked and how long it took, but
+ * never its return value.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Redacted {}
@@ -0,0 +1,129 @@
+package com.revature.rpm.util;
+
+import com.revature.rpm.dtos.LoginResponse;
+import com.revature.rpm.dtos.RefreshTokenRequest;
+import com.revature.rpm.dtos.UserCredentials;
+import com.revature.rpm.entities.AppUser;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Wraps a traced value so that it is only converted to a string, with sensitive data redacted, if
+ * the log message that it belongs to is actually written. <br>
+ * <br>
+ * Redaction rules: <br>
+ * - Users and credentials are reduced to their id or type.<br>
+ * - Responses and optionals are unwrapped, and their content redacted.<br>
+ * - Collections and maps are reduced to their size.<br>
+ * - Arguments whose name mentions a password, secret or token are hidden entirely.<br>
+ * - Return values of methods annotated with Redacted are hidden entirely.<br>
+ * - Everything else is truncated to a bounded length.
+ */
+public final class TraceValue {
+
+  private static final int MAX_LENGTH = 64;
+  private static final String REDACTED = "[redacted]";
+  private static final Object HIDDEN = new Object();
+  private static final Pattern SENSITIVE_NAME =
+      Pattern.compile(".*(password|secret|token|pw).*", Pattern.CASE_INSENSITIVE);
+
+  private final String[] names;
+  private final Object[] values;
+
+  private TraceValue(String[] names, Object[] values) {
+    this.names = names;
+    this.values = values;
+  }
+
+  /**
+   * Wraps a single value, such as a return value.
+   *
+   * @param value - The value to wrap.
+   * @return A lazily redacted representation of the value.
+   */
+  public static TraceValue of(Object value) {
+    return new TraceValue(null, new Object[] {value});
+  }
+
+  /**
+   * Stands in for a value that must not be logged at all, such as the return value of a method
+   * annotated with Redacted.
+   *
+   * @return A representation that never reveals the value.
+   */
+  public static TraceValue hidden() {
+    return new TraceValue(null, new Object[] {HIDDEN});
+  }
+
+  /**
+   * Wraps the arguments of a method invocation.
+   *
+   * @param names - The names of the parameters, if known.
+   * @param args - The arguments passed to the method.
+   * @return A lazily redacted representation of the arguments.
+   */
+  public static TraceValue ofArguments(String[] names, Object[] args) {
+    return new TraceValue(names, args);
+  }
+
+  /**
+   * Performs the redaction. Only invoked by the logger when the message is written.
+   *
+   * @return The redacted string representation of the wrapped value(s).
+   */
+  @Override
+  public String toString() {
+    if (names == null) {
+      return redact(values[0]);
+    }
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      String name = i < names.length ? names[i] : "arg" + i;
+      sb.append(name).append('=');
+      sb.append(SENSITIVE_NAME.matcher(name).matches() ? REDACTED : redact(values[i]));
+    }
+    return sb.append(']').toString();
+  }
+
+  private static String redact(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value == HIDDEN) {
+      return REDACTED;
+    }
+    if (value instanceof HttpEntity) {
+      String body = redact(((HttpEntity<?>) value).getBody());
+      return value.getClass().getSimpleName() + "[" + body + "]";
+    }
+    if (value instanceof Optional) {
+      return "Optional[" + redact(((Optional<?>) value).orElse(null)) + "]";
+    }
+    if (value instanceof AppUser) {
+      return "AppUser[id=" + ((AppUser) value).getId() + "]";
+    }
+    if (value instanceof UserCredentials
+        || value instanceof RefreshTokenRequest
+        || value instanceof LoginResponse
+        || value instanceof UserDetails
+        || value instanceof Authentication) {
+      return value.getClass().getSimpleName() + REDACTED;
+    }
+    if (value instanceof Collection) {
+      return value.getClass().getSimpleName() + "[size=" + ((Collection<?>) value).size() + "]";
+    }
+    if (value instanceof Map) {
+      return value.getClass().getSimpleName() + "[size=" + ((Map<?, ?>) value).size() + "]";
+    }
+    String str = String.valueOf(value);
+    return str.length() > MAX_LENGTH ? str.substring(0, MAX_LENGTH) + "..." : str;
+  }
+}
@@ -0,0 +1,97 @@
+package com.revature.rpm.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traces a sample of the method invocations made on the service and controller layers of this
+ * microservice. Only registered when rpm.trace.enabled is true, so no proxies are created and no
+ * work is done at all while tracing is disabled. <br>
+ * <br>
+ * Invocations are logged through the logger of the class being invoked, which allows the level to
+ * be set per package (e.g. logging.level.com.revature.rpm.services=DEBUG): <br>
+ * - DEBUG: The method invoked and how long it took.<br>
+ * - TRACE: Additionally, its (redacted) arguments and return value. The return value of a method
+ * annotated with Redacted is never logged.<br>
+ * <br>
+ * Only a fraction of invocations (rpm.trace.sample-rate) is traced. Messages are formatted lazily,
+ * so arguments and return values are only converted to strings if the message is actually logged.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "rpm.trace.enabled", havingValue = "true")
+public class TracingAspect {
+
+  /** The fraction of invocations to trace, between 0 and 1. */
+  @Value("${rpm.trace.sample-rate:0.01}")
+  private double sampleRate;
+
+  /** This pointcut joins to all joinpoints in the service and controller packages. */
+  @Pointcut("within(com.revature.rpm.services..*) || within(com.revature.rpm.web.controllers..*)")
+  public void traced() {}
+
+  /**
+   * Traces a sampled invocation of an advised method. Invocations that are not sampled, or whose
+   * class does not have DEBUG logging enabled, are passed through untouched.
+   *
+   * @param pjp - The invocation of the advised method.
+   * @return The value returned by the advised method.
+   * @throws Throwable if the advised method throws anything.
+   */
+  @Around("traced()")
+  public Object trace(ProceedingJoinPoint pjp) throws Throwable {
+
+    Logger logger = LoggerFactory.getLogger(pjp.getSignature().getDeclaringType());
+
+    if (!logger.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return pjp.proceed();
+    }
+
+    String method = pjp.getSignature().getName();
+    boolean detailed = logger.isTraceEnabled();
+
+    if (detailed) {
+      String[] names = ((CodeSignature) pjp.getSignature()).getParameterNames();
+      logger.trace("{} invoked with {}", method, TraceValue.ofArguments(names, pjp.getArgs()));
+    }
+
+    long start = System.nanoTime();
+
+    try {
+
+      Object rtrn = pjp.proceed();
+      long micros = (System.nanoTime() - start) / 1000;
+
+      if (detailed) {
+        logger.trace("{} returned {} in {} us", method, returned(pjp, rtrn), micros);
+      } else {
+        logger.debug("{} returned in {} us", method, micros);
+      }
+
+      return rtrn;
+
+    } catch (Throwable t) {
+      long micros = (System.nanoTime() - start) / 1000;
+      logger.debug("{} threw {} in {} us", method, t.getClass().getSimpleName(), micros);
+      throw t;
+    }
+  }
+
+  private static TraceValue returned(ProceedingJoinPoint pjp, Object rtrn) {
+    if (pjp.getSignature() instanceof MethodSignature
+        && ((MethodSignature) pjp.getSignature()).getMethod().isAnnotationPresent(Redacted.class)) {
+      return TraceValue.hidden();
+    }
+    return TraceValue.of(rtrn);
+  }
+}
@@ -1,5 +1,7 @@
 package com.revature.rpm.web.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.revature.rpm.dtos.UserErrorResponse;
 import com.revature.rpm.dtos.UserPrincipal;
 import com.revature.rpm.entities.AppUser;
@@ -8,12 +10,19 @@ import com.revature.rpm.exceptions.UserCreationException;
 import com.revature.rpm.exceptions.UserNotFoundException;
 import com.revature.rpm.exceptions.UserUpdateException;
 import com.revature.rpm.services.UserService;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -27,6 +36,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Handles all CRUD functionality requests related to users and is mapped to handle all requests to
@@ -37,24 +47,107 @@ import org.springframework.web.bind.annotation.RestController;
 @EnableGlobalMethodSecurity(prePostEnabled = true)
 public class AuthController {
 
+  /** Media type of the streamed user listing: one JSON document per line. */
+  public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
   private UserService userService;
 
+  private ObjectWriter userWriter;
+
   @Autowired
-  public AuthController(UserService service) {
+  public AuthController(UserService service, ObjectMapper mapper) {
     this.userService = service;
+    this.userWriter = mapper.writerFor(AppUser.class);
   }
 
   /**
-   * Serves as a front-facing endpoint for fetching all users from the data source. Requesters to
-   * this endpoint must possess a role of ADMIN.
+   * Serves as a front-facing endpoint for fetching all users from the data source as a JSON array,
+   * which is the response existing clients expect. Selected when none of the pagination parameters
+   * (page, size, sort or after) are provided. Each user is written as it is read, so the full
+   * listing is never held in memory. Requesters to this endpoint must possess a role of ADMIN.
    *
-   * @return All users from the database.
+   * @return A response body that writes every user, in order of ID, as a JSON array.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping(
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      params = {"!page", "!size", "!sort", "!after"})
+  public ResponseEntity<StreamingResponseBody> getAllUsers() {
+
+    StreamingResponseBody body =
+        out -> {
+          boolean[] first = {true};
+          out.write('[');
+          userService.forEachUser(
+              user -> {
+                try {
+                  if (!first[0]) {
+                    out.write(',');
+                  }
+                  first[0] = false;
+                  out.write(userWriter.writeValueAsBytes(user));
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+          out.write(']');
+        };
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Serves as a front-facing endpoint for fetching users from the data source one page at a time.
+   * Selected when any of the pagination parameters is provided; the response is then a page object
+   * whose content holds the users. Pages are selected using the page, size and sort request
+   * parameters (e.g. ?page=2&size=50&sort=username,asc). If the after parameter is provided, the
+   * users following that ID are returned in order of ID instead (keyset pagination), which remains
+   * fast for deep pages; the page and sort parameters are then ignored. Requesters to this endpoint
+   * must possess a role of ADMIN.
+   *
+   * @param pageable - The requested page number, size and sort order.
+   * @param after - The ID of the last user of the previous page, if using keyset pagination.
+   * @return A page of users from the database.
    */
   @ResponseStatus(HttpStatus.OK)
   @PreAuthorize("hasRole('ADMIN')")
   @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-  public List<AppUser> getAllUsers() {
-    return userService.findAllUsers();
+  public Slice<AppUser> getUserPage(
+      @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+      @RequestParam(required = false) Integer after) {
+
+    if (after != null) {
+      return userService.findUsersAfter(after, pageable.getPageSize());
+    }
+
+    return userService.findAllUsers(pageable);
+  }
+
+  /**
+   * Serves as a front-facing endpoint for streaming all users from the data source as
+   * newline-delimited JSON. Selected when the request accepts application/x-ndjson; each user is
+   * written as it is read, so the full listing is never held in memory. Requesters to this endpoint
+   * must possess a role of ADMIN.
+   *
+   * @return A response body that writes every user, one per line, in order of ID.
+   */
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+
+    StreamingResponseBody body =
+        out ->
+            userService.forEachUser(
+                user -> {
+                  try {
+                    out.write(userWriter.writeValueAsBytes(user));
+                    out.write('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+
+    return ResponseEntity.ok().contentType(MediaType.valueOf(APPLICATION_NDJSON_VALUE)).body(body);
   }
 
   /**
@@ -217,6 +310,23 @@ public class AuthController {
     return error;
   }
 
+  /**
+   * Handles any PropertyReferenceException thrown to the AuthController, which occurs when a page
+   * is requested to be sorted by a property that users do not have.
+   *
+   * @param pre - A PropertyReferenceException.
+   * @return An error of type UserErrorResponse.
+   */
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public UserErrorResponse handlePropertyReferenceException(PropertyReferenceException pre) {
+    UserErrorResponse error = new UserErrorResponse();
+    error.setStatus(HttpStatus.BAD_REQUEST.value());
+    error.setMessage(pre.getMessage());
+    error.setTimestamp(System.currentTimeMillis());
+    return error;
+  }
+
   /**
    * Handles any UserUpdateException thrown to the AuthController.
    *
@@ -0,0 +1,52 @@
+package com.revature.rpm.web.controllers;
+
+import com.revature.rpm.invalidation.PeerInvalidationTransport;
+import com.revature.rpm.invalidation.UserChangedEvent;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives the UserChangedEvents sent by the other nodes of this service. Only registered when
+ * events are exchanged between nodes (rpm.invalidation.transport=peers).
+ */
+@RestController
+@ConditionalOnProperty(name = "rpm.invalidation.transport", havingValue = "peers")
+public class InvalidationController {
+
+  private PeerInvalidationTransport transport;
+
+  @Autowired
+  public InvalidationController(PeerInvalidationTransport transport) {
+    this.transport = transport;
+  }
+
+  /**
+   * Serves as the endpoint that other nodes send UserChangedEvents to. Requests must carry a valid
+   * gateway header, as applied by the sending node.
+   *
+   * @param event - The change made on another node.
+   * @param req - Provides the gateway validation result of the GatewaySubversionFilter.
+   * @return 202 (Accepted) once the event has been handled, or 401 (Unauthorized) if the request
+   *     did not carry a valid gateway header.
+   */
+  @PostMapping(
+      value = PeerInvalidationTransport.ENDPOINT,
+      consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Void> receive(
+      @RequestBody UserChangedEvent event, HttpServletRequest req) {
+
+    if (!Boolean.FALSE.equals(req.getAttribute("gateway-subverted"))) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    transport.receive(event);
+    return ResponseEntity.accepted().build();
+  }
+}
@@ -0,0 +1,45 @@
+package com.revature.rpm.web.controllers;
+
+import com.revature.rpm.services.SigningKeyService;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Publishes the public keys JWTs are verified with, so that other services can verify JWTs
+ * themselves rather than calling this service.
+ */
+@RestController
+public class KeySetController {
+
+  public static final String ENDPOINT = "/.well-known/jwks.json";
+
+  private SigningKeyService signingKeyService;
+
+  @Autowired
+  public KeySetController(SigningKeyService signingKeyService) {
+    this.signingKeyService = signingKeyService;
+  }
+
+  /**
+   * Serves as a front-facing endpoint for retrieving the public keys JWTs are verified with. The
+   * response may be cached for a shorter time than the next key is published in advance, so
+   * clients that cache it have learned about each key before it signs a JWT.
+   *
+   * @return 200 (OK) with a JSON Web Key Set, which has no keys if JWTs are signed with the shared
+   *     secret.
+   */
+  @GetMapping(value = ENDPOINT, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Map<String, Object>> getKeySet() {
+    return ResponseEntity.ok()
+        .cacheControl(
+            CacheControl.maxAge(signingKeyService.getJwksMaxAge(), TimeUnit.MILLISECONDS)
+                .cachePublic())
+        .body(signingKeyService.getJwks());
+  }
+}
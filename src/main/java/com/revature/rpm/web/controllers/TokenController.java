@@ -0,0 +1,156 @@
+package com.revature.rpm.web.controllers;
+
+import com.revature.rpm.dtos.LoginResponse;
+import com.revature.rpm.dtos.RefreshTokenRequest;
+import com.revature.rpm.dtos.UserErrorResponse;
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.exceptions.InvalidRefreshTokenException;
+import com.revature.rpm.invalidation.UserChangeType;
+import com.revature.rpm.invalidation.UserChangedEvent;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.events.SecurityEventType;
+import com.revature.rpm.security.util.JwtGenerator;
+import com.revature.rpm.security.util.RoleRegistry;
+import com.revature.rpm.security.util.VerifiedToken;
+import com.revature.rpm.services.RefreshTokenService;
+import com.revature.rpm.services.RefreshTokenService.Rotation;
+import com.revature.rpm.services.SigningKeyService;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Issues new tokens to clients in exchange for their refresh token, and revokes tokens. */
+@RestController
+@RequestMapping("/tokens")
+public class TokenController {
+
+  private RefreshTokenService refreshTokenService;
+  private SigningKeyService signingKeyService;
+  private RoleRegistry roleRegistry;
+  private JwtConfig jwtConfig;
+  private SecurityEventLog eventLog;
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  public TokenController(
+      RefreshTokenService refreshTokenService,
+      SigningKeyService signingKeyService,
+      RoleRegistry roleRegistry,
+      JwtConfig jwtConfig,
+      SecurityEventLog eventLog,
+      ApplicationEventPublisher eventPublisher) {
+    this.refreshTokenService = refreshTokenService;
+    this.signingKeyService = signingKeyService;
+    this.roleRegistry = roleRegistry;
+    this.jwtConfig = jwtConfig;
+    this.eventLog = eventLog;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * Serves as a front-facing endpoint for refreshing a token. The refresh token is exchanged for a
+   * new one, and a new token is sent in the header configured by JwtConfig, exactly as upon login.
+   * The user's current role is loaded, so role changes take effect on the next refresh. The
+   * password is not verified.
+   *
+   * @param body - Carries the refresh token issued by the last login or refresh.
+   * @param req - Provides the gateway validation result of the GatewaySubversionFilter.
+   * @return 200 (OK) with a LoginResponse carrying the new refresh token, or 401 (Unauthorized) if
+   *     the request did not carry a valid gateway header.
+   */
+  @PostMapping(
+      value = "/refresh",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<LoginResponse> refresh(
+      @RequestBody RefreshTokenRequest body, HttpServletRequest req) {
+
+    if (!Boolean.FALSE.equals(req.getAttribute("gateway-subverted"))) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    Rotation rotation = refreshTokenService.rotate(body.getRefreshToken());
+    AppUser user = rotation.getUser();
+
+    Authentication auth =
+        new UsernamePasswordAuthenticationToken(
+            user.getUsername(), null, roleRegistry.getAuthorities(user.getRole()));
+
+    long issuedAt = System.currentTimeMillis();
+    String token =
+        JwtGenerator.createJwt(auth, jwtConfig, signingKeyService.getCurrent(), issuedAt);
+    eventLog.record(SecurityEventType.ISSUED, user.getUsername(), req.getRemoteAddr(), "refresh");
+
+    return ResponseEntity.ok()
+        .header(jwtConfig.getHeader(), jwtConfig.getPrefix() + token)
+        .body(
+            new LoginResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getRole(),
+                issuedAt + jwtConfig.getExpiration(),
+                rotation.getToken()));
+  }
+
+  /**
+   * Serves as a front-facing endpoint for logging out. The token the request was authenticated with
+   * is revoked on every node, as is the family of the refresh token, if one is provided.
+   *
+   * @param body - Optionally carries the refresh token issued along with the token.
+   * @param auth - The authentication established by the TokenFilter.
+   */
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  @PostMapping(value = "/logout")
+  public void logout(
+      @RequestBody(required = false) RefreshTokenRequest body, Authentication auth) {
+
+    if (body != null) {
+      refreshTokenService.revoke(body.getRefreshToken());
+    }
+
+    if (auth != null && auth.getDetails() instanceof VerifiedToken) {
+      VerifiedToken token = (VerifiedToken) auth.getDetails();
+      UserChangedEvent event =
+          new UserChangedEvent(UserChangeType.TOKEN_REVOKED, null, token.getUsername(), null, null);
+      event.setTokenId(token.getId());
+      event.setTokenExpiresAt(token.getExpiresAt());
+      eventPublisher.publishEvent(event);
+    }
+  }
+
+  /**
+   * Handles any InvalidRefreshTokenException thrown to the TokenController, recording the rejected
+   * (or reused) refresh token to the security event log.
+   *
+   * @param irte - An InvalidRefreshTokenException.
+   * @param req - Provides the address the request originated from.
+   * @return An error of type UserErrorResponse.
+   */
+  @ExceptionHandler
+  @ResponseStatus(HttpStatus.UNAUTHORIZED)
+  public UserErrorResponse handleInvalidRefreshTokenException(
+      InvalidRefreshTokenException irte, HttpServletRequest req) {
+    eventLog.record(
+        irte.isReused() ? SecurityEventType.REUSED : SecurityEventType.REJECTED,
+        null,
+        req.getRemoteAddr(),
+        irte.getMessage());
+    UserErrorResponse error = new UserErrorResponse();
+    error.setStatus(HttpStatus.UNAUTHORIZED.value());
+    error.setMessage(irte.getMessage());
+    error.setTimestamp(System.currentTimeMillis());
+    return error;
+  }
+}
@@ -1,19 +1,31 @@
 package com.revature.rpm.web.filters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.revature.rpm.dtos.LoginResponse;
 import com.revature.rpm.dtos.UserCredentials;
 import com.revature.rpm.dtos.UserPrincipal;
+import com.revature.rpm.entities.AppUser;
 import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.events.SecurityEventType;
 import com.revature.rpm.security.util.JwtGenerator;
+import com.revature.rpm.security.util.VerificationExecutor;
+import com.revature.rpm.services.RefreshTokenService;
+import com.revature.rpm.services.SigningKeyService;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -26,19 +38,51 @@ public class AuthFilter extends UsernamePasswordAuthenticationFilter {
 
   private JwtConfig jwtConfig;
 
+  private VerificationExecutor verificationExecutor;
+
+  private SecurityEventLog eventLog;
+
+  private RefreshTokenService refreshTokenService;
+
+  private SigningKeyService signingKeyService;
+
+  private ObjectReader credentialsReader;
+
+  private ObjectWriter responseWriter;
+
   /**
-   * Constructor for the AuthFilter that instantiates the AuthenticationManager and the JwtConfig
-   * fields. <br>
+   * Constructor for the AuthFilter that instantiates the AuthenticationManager, JwtConfig,
+   * VerificationExecutor and SecurityEventLog fields. The reader of login credentials and the
+   * writer of the login response are built once from the application's ObjectMapper, so that
+   * Jackson resolves their (de)serializers once rather than on every login. <br>
    * <br>
    * The default endpoint is being leveraged. All authentication (login) requests should be POST
    * requests made to /login.
    *
    * @param authManager - Processes authentication requests.
    * @param jwtConfig - Provides the configuration for how JWT tokens are created/validated.
+   * @param verificationExecutor - Runs the credential verification on a dedicated thread pool.
+   * @param eventLog - Records issued tokens and rejected logins.
+   * @param refreshTokenService - Issues the refresh token returned upon login.
+   * @param signingKeyService - Provides the key the token is signed with.
+   * @param objectMapper - The application's ObjectMapper.
    */
-  public AuthFilter(AuthenticationManager authManager, JwtConfig jwtConfig) {
+  public AuthFilter(
+      AuthenticationManager authManager,
+      JwtConfig jwtConfig,
+      VerificationExecutor verificationExecutor,
+      SecurityEventLog eventLog,
+      RefreshTokenService refreshTokenService,
+      SigningKeyService signingKeyService,
+      ObjectMapper objectMapper) {
     this.authManager = authManager;
     this.jwtConfig = jwtConfig;
+    this.verificationExecutor = verificationExecutor;
+    this.eventLog = eventLog;
+    this.refreshTokenService = refreshTokenService;
+    this.signingKeyService = signingKeyService;
+    this.credentialsReader = objectMapper.readerFor(UserCredentials.class);
+    this.responseWriter = objectMapper.writerFor(LoginResponse.class);
   }
 
   /**
@@ -51,7 +95,10 @@ public class AuthFilter extends UsernamePasswordAuthenticationFilter {
    * 1. Get credentials from request body.<br>
    * 2. Create an authentication token (contains user credentials) which will be used by the
    * AuthenticationManager.<br>
-   * 3. Leverage AuthenticationManager to authenticate the user.
+   * 3. Leverage AuthenticationManager to authenticate the user on the verification pool.<br>
+   * <br>
+   * If the verification pool is saturated, a 503 (Service Unavailable) status is sent immediately
+   * and null is returned, indicating that authentication did not complete.
    *
    * @param request - Provides information regarding the HTTP request.
    * @param response - Provides information regarding the HTTP response.
@@ -63,12 +110,21 @@ public class AuthFilter extends UsernamePasswordAuthenticationFilter {
 
     try {
 
-      UserCredentials creds =
-          new ObjectMapper().readValue(request.getInputStream(), UserCredentials.class);
+      UserCredentials creds = credentialsReader.readValue(request.getInputStream());
       UsernamePasswordAuthenticationToken authToken =
           new UsernamePasswordAuthenticationToken(
               creds.getUsername(), creds.getPassword(), Collections.emptyList());
-      return authManager.authenticate(authToken);
+      return verificationExecutor.authenticate(authManager, authToken);
+
+    } catch (RejectedExecutionException ree) {
+
+      try {
+        response.setHeader("Retry-After", "1");
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      return null;
 
     } catch (IOException e) {
 
@@ -78,10 +134,12 @@ public class AuthFilter extends UsernamePasswordAuthenticationFilter {
 
   /**
    * Upon a successful authentication, a token should be generated. The token is generated from the
-   * JwtGenerator using the configuration found within the JwtConfig field. After a token is
-   * generated, add AppUser object as JSON to the response body upon successful login by getting the
-   * print writer of HttpServletResponse. Token is then added to the response header from JwtConfig
-   * with a corresponding prefix.
+   * JwtGenerator using the configuration found within the JwtConfig field, and signed with the
+   * current key of the SigningKeyService. After a token is generated, it is added to the response
+   * header from JwtConfig with a corresponding prefix, and a LoginResponse describing the user, the
+   * expiration of the token and a newly issued refresh token is then written as JSON directly to
+   * the response body. The header is set first, as the response may be committed as soon as the
+   * body is written.
    *
    * @param request - Provides information regarding the HTTP request.
    * @param response - Provides information regarding the HTTP response.
@@ -97,12 +155,41 @@ public class AuthFilter extends UsernamePasswordAuthenticationFilter {
       Authentication auth)
       throws IOException, ServletException {
 
-    String token = JwtGenerator.createJwt(auth, jwtConfig);
-    response
-        .getWriter()
-        .write(
-            new ObjectMapper()
-                .writeValueAsString(((UserPrincipal) auth.getPrincipal()).getAppUser()));
+    long issuedAt = System.currentTimeMillis();
+    String token =
+        JwtGenerator.createJwt(auth, jwtConfig, signingKeyService.getCurrent(), issuedAt);
+    AppUser user = ((UserPrincipal) auth.getPrincipal()).getAppUser();
+    eventLog.record(SecurityEventType.ISSUED, auth.getName(), request.getRemoteAddr(), "login");
     response.addHeader(jwtConfig.getHeader(), jwtConfig.getPrefix() + token);
+    response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+    responseWriter.writeValue(
+        response.getOutputStream(),
+        new LoginResponse(
+            user.getId(),
+            user.getUsername(),
+            user.getRole(),
+            issuedAt + jwtConfig.getExpiration(),
+            refreshTokenService.issue(user)));
+  }
+
+  /**
+   * Records the rejected login before delegating to the default failure handling, which responds
+   * with a 401 (Unauthorized) status.
+   *
+   * @param request - Provides information regarding the HTTP request.
+   * @param response - Provides information regarding the HTTP response.
+   * @param failed - The reason authentication failed.
+   */
+  @Override
+  protected void unsuccessfulAuthentication(
+      HttpServletRequest request, HttpServletResponse response, AuthenticationException failed)
+      throws IOException, ServletException {
+
+    eventLog.record(
+        SecurityEventType.REJECTED,
+        null,
+        request.getRemoteAddr(),
+        failed.getClass().getSimpleName());
+    super.unsuccessfulAuthentication(request, response, failed);
   }
 }
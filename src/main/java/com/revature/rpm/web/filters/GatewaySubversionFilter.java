@@ -1,11 +1,9 @@
 package com.revature.rpm.web.filters;
 
-import com.revature.rpm.exceptions.GatewaySubversionException;
 import com.revature.rpm.security.config.ZuulConfig;
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.events.SecurityEventType;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -24,19 +22,24 @@ public class GatewaySubversionFilter extends GenericFilterBean {
 
   private ZuulConfig zuulConfig;
 
+  private SecurityEventLog eventLog;
+
   /**
-   * A constructor for GatewaySubversionFilter that instantiates the ZuulConfig field.
+   * A constructor for GatewaySubversionFilter that instantiates the ZuulConfig and SecurityEventLog
+   * fields.
    *
    * @param zuulConfig - Provides configuration for validating that requests came from Zuul.
+   * @param eventLog - Records requests that did not come through the gateway.
    */
-  public GatewaySubversionFilter(ZuulConfig zuulConfig) {
+  public GatewaySubversionFilter(ZuulConfig zuulConfig, SecurityEventLog eventLog) {
     this.zuulConfig = zuulConfig;
+    this.eventLog = eventLog;
   }
 
   /**
    * Applies filtering to the request by validating the header to ensure it matches the one added by
    * the gateway. Requests that fail validation are deemed as subverting the gateway unless they are
-   * destined for the actuator.
+   * destined for the actuator, and are recorded to the security event log.
    *
    * @param req - A request from the client to the servlet.
    * @param resp - A response that can be sent back to the client.
@@ -56,69 +59,39 @@ public class GatewaySubversionFilter extends GenericFilterBean {
 
     String headerZuul = httpReq.getHeader(zuulConfig.getHeader());
 
-    try {
-
-      if (httpReq.getRequestURI().contains("/actuator")) {
-        httpReq.setAttribute(GATEWAY_SUBVERTED, true);
-        httpReq.setAttribute(REQUEST_TYPE, "health-check");
-      } else if (validateHeader(headerZuul)) {
-        httpReq.setAttribute(GATEWAY_SUBVERTED, false);
-        httpReq.setAttribute(REQUEST_TYPE, "resource");
-      } else {
-        httpReq.setAttribute(GATEWAY_SUBVERTED, true);
-        httpReq.setAttribute(REQUEST_TYPE, "resource");
-        SecurityContextHolder.clearContext();
-        httpResp.setStatus(401);
-        throw new GatewaySubversionException("No gateway header found on request.");
-      }
-
-    } catch (GatewaySubversionException gse) {
-      gse.printStackTrace();
+    if (httpReq.getRequestURI().contains("/actuator")) {
+      httpReq.setAttribute(GATEWAY_SUBVERTED, true);
+      httpReq.setAttribute(REQUEST_TYPE, "health-check");
+    } else if (validateHeader(headerZuul)) {
+      httpReq.setAttribute(GATEWAY_SUBVERTED, false);
+      httpReq.setAttribute(REQUEST_TYPE, "resource");
+    } else {
+      httpReq.setAttribute(GATEWAY_SUBVERTED, true);
+      httpReq.setAttribute(REQUEST_TYPE, "resource");
+      SecurityContextHolder.clearContext();
+      httpResp.setStatus(401);
+      eventLog.record(
+          SecurityEventType.SUBVERTED,
+          null,
+          httpReq.getRemoteAddr(),
+          headerZuul == null ? "missing gateway header" : "invalid gateway header");
     }
 
     chain.doFilter(httpReq, httpResp);
   }
 
   /**
-   * Performs a SHA-512 hash.
-   *
-   * @param password - Represents the password that will be hashed.
-   * @return A SHA-512 hashed value.
-   */
-  public String getHash(String password) {
-
-    String generatedPassword = null;
-
-    try {
-
-      MessageDigest md = MessageDigest.getInstance("SHA-512");
-      md.update(zuulConfig.getSalt().getBytes(StandardCharsets.UTF_8));
-      byte[] bytes = md.digest(password.getBytes(StandardCharsets.UTF_8));
-      StringBuilder sb = new StringBuilder();
-
-      for (int i = 0; i < bytes.length; i++) {
-        sb.append(Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1));
-      }
-
-      generatedPassword = sb.toString();
-
-    } catch (NoSuchAlgorithmException e) {
-      e.printStackTrace();
-    }
-
-    return generatedPassword;
-  }
-
-  /**
-   * Checks if the header value matches the expected value.
+   * Checks if the header value matches one of the expected values. The expected digests are
+   * precomputed by zuulConfig's keyring, which accepts the current secret as well as previous
+   * secrets that have not yet expired.
    *
    * @param header - The retrieved header from the request.
-   * @return True if the header matches that of zuulConfig's secret and false otherwise.
+   * @return True if the header matches an accepted secret of zuulConfig and false otherwise.
    */
   public boolean validateHeader(String header) {
     if (header == null) {
       return false;
     }
-    return header.equals(getHash(zuulConfig.getSecret()));
+    return zuulConfig.getKeyring().matches(header, System.currentTimeMillis());
   }
 }
@@ -1,38 +1,93 @@
 package com.revature.rpm.web.filters;
 
-import com.revature.rpm.security.config.JwtConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.events.SecurityEventType;
+import com.revature.rpm.security.util.BearerTokenResolver;
+import com.revature.rpm.security.util.CompactToken;
+import com.revature.rpm.security.util.RoleRegistry;
+import com.revature.rpm.security.util.SigningKey;
+import com.revature.rpm.security.util.TokenRevocationList;
+import com.revature.rpm.security.util.VerifiedToken;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+import com.revature.rpm.services.SigningKeyService;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Base64;
+import java.util.StringJoiner;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /** Intercepts all requests and validates the JWT, if present, in the HTTP request header. */
 public class TokenFilter extends OncePerRequestFilter {
 
-  private final JwtConfig jwtConfig;
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final BearerTokenResolver tokenResolver;
+
+  private final VerifiedTokenCache tokenCache;
+
+  private final TokenRevocationList revocationList;
+
+  private final SecurityEventLog eventLog;
+
+  private final SigningKeyService signingKeyService;
+
+  private final ObjectReader jsonReader;
+
+  private final RoleRegistry roleRegistry;
 
   /**
-   * Constructor for JwtTokenAuthenticationFilter that instantiates the JwtConfig field.
+   * Constructor for JwtTokenAuthenticationFilter that instantiates the BearerTokenResolver,
+   * VerifiedTokenCache, TokenRevocationList and SecurityEventLog fields. The key each token is
+   * verified with is resolved by the SigningKeyService, by the header of the token. The claims are
+   * read with a reader built once from the application's ObjectMapper, and the authorities they
+   * claim are looked up in the RoleRegistry.
    *
-   * @param jwtConfig - Provides configuration for validating JWTs.
+   * @param tokenResolver - Extracts the token from the request.
+   * @param tokenCache - Holds tokens whose signature has already been verified.
+   * @param revocationList - Holds tokens that were revoked before they expired.
+   * @param eventLog - Records rejected tokens.
+   * @param signingKeyService - Provides the keys tokens are verified with.
+   * @param objectMapper - The application's ObjectMapper.
+   * @param roleRegistry - Provides the interned authorities of each role combination.
    */
-  public TokenFilter(JwtConfig jwtConfig) {
-    this.jwtConfig = jwtConfig;
+  public TokenFilter(
+      BearerTokenResolver tokenResolver,
+      VerifiedTokenCache tokenCache,
+      TokenRevocationList revocationList,
+      SecurityEventLog eventLog,
+      SigningKeyService signingKeyService,
+      ObjectMapper objectMapper,
+      RoleRegistry roleRegistry) {
+    this.tokenResolver = tokenResolver;
+    this.tokenCache = tokenCache;
+    this.revocationList = revocationList;
+    this.eventLog = eventLog;
+    this.signingKeyService = signingKeyService;
+    this.jsonReader = objectMapper.readerFor(JsonNode.class);
+    this.roleRegistry = roleRegistry;
   }
 
   /**
-   * Performs the JWT validation. If no Authorization header is present, the request is passed along
-   * to the next filter in the chain (in case of requests to unrestricted endpoints). The token is
-   * valid only if it has the proper prefix, a proper principal, and is has not expired.
+   * Performs the JWT validation. If the BearerTokenResolver finds no token in the request, the
+   * request is passed along to the next filter in the chain (in case of requests to unrestricted
+   * endpoints). The token is valid only if it has a proper principal, and is has not expired.
+   * Tokens that were already verified on a previous request are served from the token cache,
+   * skipping the signature check and claim parsing (and any copy of the token). Tokens that were
+   * revoked are rejected, which only takes an in-memory lookup. The verified token is attached to
+   * the resulting authentication as its details.
    *
    * @param req - Provides information regarding the HTTP request.
    * @param resp - Provides information regarding the HTTP response.
@@ -46,42 +101,119 @@ public class TokenFilter extends OncePerRequestFilter {
       HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
       throws ServletException, IOException {
 
-    String header = req.getHeader(jwtConfig.getHeader());
+    CharSequence token = tokenResolver.resolve(req);
 
-    if (header == null || !header.startsWith(jwtConfig.getPrefix())) {
+    if (token == null) {
       chain.doFilter(req, resp);
       return;
     }
 
-    String token = header.replaceAll(jwtConfig.getPrefix(), "");
-
     try {
 
-      Claims claims =
-          Jwts.parser()
-              .setSigningKey(jwtConfig.getSecret().getBytes())
-              .parseClaimsJws(token)
-              .getBody();
-
-      String username = claims.getSubject();
-
-      if (username != null) {
+      VerifiedToken verified = tokenCache.get(token);
 
-        @SuppressWarnings("unchecked")
-        List<String> authoritiesClaim = (List<String>) claims.get("authorities");
-
-        List<SimpleGrantedAuthority> grantedAuthorities =
-            authoritiesClaim.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+      if (verified == null) {
+        verified = verify(token.toString());
+      }
 
+      if (verified != null && revocationList.isRevoked(verified)) {
+        SecurityContextHolder.clearContext();
+        eventLog.record(
+            SecurityEventType.REJECTED, verified.getUsername(), req.getRemoteAddr(), "revoked");
+      } else if (verified != null) {
         UsernamePasswordAuthenticationToken auth =
-            new UsernamePasswordAuthenticationToken(username, null, grantedAuthorities);
+            new UsernamePasswordAuthenticationToken(
+                verified.getUsername(), null, verified.getAuthorities());
+        auth.setDetails(verified);
         SecurityContextHolder.getContext().setAuthentication(auth);
       }
 
     } catch (Exception e) {
       SecurityContextHolder.clearContext();
+      eventLog.record(
+          SecurityEventType.REJECTED, null, req.getRemoteAddr(), e.getClass().getSimpleName());
     }
 
     chain.doFilter(req, resp);
   }
+
+  /**
+   * Verifies the signature of a token and parses its claims. Compact tokens are decoded by
+   * CompactToken. The key a JWT is verified with is selected by the encoded header of the JWT,
+   * which is only parsed if it is not encoded the way this service encodes it. Tokens with a proper
+   * principal are added to the token cache.
+   *
+   * @param token - The raw token (without prefix).
+   * @return The verified token, or null if the token has no principal.
+   * @throws IOException if the header or claims are not JSON.
+   */
+  private VerifiedToken verify(String token) throws IOException {
+
+    if (CompactToken.isCompact(token)) {
+      VerifiedToken verified =
+          CompactToken.decode(token, roleRegistry, signingKeyService::resolveById);
+      tokenCache.put(token, verified);
+      return verified;
+    }
+
+    SigningKey key = signingKeyService.resolve(token);
+
+    if (key == null) {
+      int headerEnd = token.indexOf('.');
+      if (headerEnd <= 0) {
+        throw new MalformedJwtException("Token is not a compact JWS");
+      }
+      JsonNode header = jsonReader.readValue(DECODER.decode(token.substring(0, headerEnd)));
+      key =
+          signingKeyService.resolve(
+              header.path(JwsHeader.KEY_ID).textValue(),
+              header.path(JwsHeader.ALGORITHM).textValue());
+    }
+
+    if (key == null) {
+      throw new SignatureException("Unknown signing key");
+    }
+
+    JsonNode claims = jsonReader.readValue(key.getCodec().verify(token));
+
+    long expiresAt = claims.path(Claims.EXPIRATION).asLong() * 1000;
+    if (expiresAt <= System.currentTimeMillis()) {
+      throw new ExpiredJwtException(null, null, "Token has expired");
+    }
+
+    String username = claims.path(Claims.SUBJECT).textValue();
+
+    if (username == null) {
+      return null;
+    }
+
+    VerifiedToken verified =
+        new VerifiedToken(
+            username,
+            roleRegistry.getAuthorities(roles(claims.path("authorities"))),
+            claims.path(Claims.ID).textValue(),
+            claims.path(Claims.ISSUED_AT).asLong() * 1000,
+            expiresAt);
+    tokenCache.put(token, verified);
+
+    return verified;
+  }
+
+  /**
+   * Joins the roles of an authorities claim into the comma-separated form the RoleRegistry is keyed
+   * by. A single role (the common case) is used as is.
+   *
+   * @param authorities - The authorities claim, a JSON array of roles.
+   * @return The comma-separated roles.
+   */
+  private static String roles(JsonNode authorities) {
+    if (authorities.size() == 1) {
+      return authorities.get(0).asText();
+    }
+    StringJoiner roles = new StringJoiner(",");
+    for (JsonNode authority : authorities) {
+      roles.add(authority.asText());
+    }
+    return roles.toString();
+  }
 }
@@ -1,5 +1,5 @@
-INSERT INTO rpm_users (rpm_user_id, rpm_user_fn, rpm_user_ln, rpm_user_email, rpm_user_username, rpm_user_pw, rpm_user_role)
-VALUES (1, 'Adam', 'Inn', 'admin@revature.com', 'admin', 'p4ssw0rd', 'ROLE_ADMIN');
+INSERT INTO rpm_users (rpm_user_id, rpm_user_fn, rpm_user_ln, rpm_user_email, rpm_user_username, rpm_user_pw, rpm_user_role, rpm_user_username_norm, rpm_user_email_norm)
+VALUES (1, 'Adam', 'Inn', 'admin@revature.com', 'admin', 'p4ssw0rd', 'ROLE_ADMIN', 'admin', 'admin@revature.com');
 
-INSERT INTO rpm_users (rpm_user_id, rpm_user_fn, rpm_user_ln, rpm_user_email, rpm_user_username, rpm_user_pw, rpm_user_role)
-VALUES (2, 'Tester', 'McTesterson', 'test@revature.com', 'test-user', 'test', 'ROLE_USER');
\ No newline at end of file
+INSERT INTO rpm_users (rpm_user_id, rpm_user_fn, rpm_user_ln, rpm_user_email, rpm_user_username, rpm_user_pw, rpm_user_role, rpm_user_username_norm, rpm_user_email_norm)
+VALUES (2, 'Tester', 'McTesterson', 'test@revature.com', 'test-user', 'test', 'ROLE_USER', 'test-user', 'test@revature.com');
\ No newline at end of file
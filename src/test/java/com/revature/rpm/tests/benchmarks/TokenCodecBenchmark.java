@@ -0,0 +1,112 @@
+package com.revature.rpm.tests.benchmarks;
+
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.security.util.JwtGenerator;
+import com.revature.rpm.security.util.SigningKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.crypto.EllipticCurveProvider;
+import io.jsonwebtoken.impl.crypto.RsaProvider;
+
+/**
+ * Compares signing and verifying a JWT with a jjwt builder and parser built on
+ * every call (as JwtGenerator and TokenFilter used to) against the TokenCodec
+ * of a SigningKey, which is created once per key. Not run by the test suite:
+ * run the main method, or the benchmark from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenCodecBenchmark {
+
+	private static final String SECRET = "a-benchmark-secret-that-is-long-enough-for-hs512";
+
+	@Param({ "HS512", "RS256", "ES256" })
+	public String algorithm;
+
+	private JwtConfig jwtConfig;
+	private Authentication auth;
+	private SigningKey key;
+	private ObjectReader jsonReader;
+	private String token;
+
+	@Setup
+	public void setup() {
+		jwtConfig = new JwtConfig();
+		ReflectionTestUtils.setField(jwtConfig, "secret", SECRET);
+		ReflectionTestUtils.setField(jwtConfig, "expiration", 15 * 60 * 1000);
+
+		auth = new UsernamePasswordAuthenticationToken("benchmark", null,
+				AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+		SignatureAlgorithm alg = SignatureAlgorithm.forName(algorithm);
+		if (alg.isHmac()) {
+			key = SigningKey.hmac(SECRET);
+		} else {
+			KeyPair pair = alg.isRsa() ? RsaProvider.generateKeyPair(2048) : EllipticCurveProvider.generateKeyPair(alg);
+			key = new SigningKey("benchmark", alg, pair.getPrivate(), pair.getPublic(), 0, Long.MAX_VALUE);
+		}
+
+		jsonReader = new ObjectMapper().readerFor(JsonNode.class);
+		token = JwtGenerator.createJwt(auth, jwtConfig, key, System.currentTimeMillis());
+	}
+
+	@Benchmark
+	public String signWithJjwt() {
+		long now = System.currentTimeMillis();
+		return Jwts.builder().setId("benchmark").setSubject(auth.getName()).setIssuer("revature")
+				.claim("authorities", AuthorityUtils.authorityListToSet(auth.getAuthorities()))
+				.setIssuedAt(new Date(now)).setExpiration(new Date(now + jwtConfig.getExpiration()))
+				.setHeaderParam("kid", key.getKid()).signWith(key.getAlgorithm(), key.getSigningKey()).compact();
+	}
+
+	@Benchmark
+	public String signWithCodec() {
+		return JwtGenerator.createJwt(auth, jwtConfig, key, System.currentTimeMillis());
+	}
+
+	@Benchmark
+	public Claims verifyWithJjwt() {
+		return Jwts.parser().setSigningKey(key.getVerificationKey()).parseClaimsJws(token).getBody();
+	}
+
+	@Benchmark
+	public JsonNode verifyWithCodec() throws Exception {
+		return jsonReader.readValue(key.getCodec().verify(token));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TokenCodecBenchmark.class.getSimpleName()).build()).run();
+	}
+}
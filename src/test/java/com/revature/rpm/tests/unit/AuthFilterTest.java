@@ -0,0 +1,81 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.security.util.VerificationExecutor;
+import com.revature.rpm.web.filters.AuthFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test Suite for the AuthFilter class. Verifies that logins are turned away
+ * once the verification pool is saturated.
+ */
+public class AuthFilterTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final ExecutorService requests = Executors.newFixedThreadPool(2);
+
+	@After
+	public void releaseVerifications() {
+		release.countDown();
+		requests.shutdownNow();
+	}
+
+	/**
+	 * Tests a login while the single verification thread is busy and its queue of
+	 * one is full. The expected result is a 503 with a Retry-After header, without
+	 * the credentials being verified.
+	 */
+	@Test
+	public void testAttemptAuthenticationWhenQueueIsFull() throws Exception {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		VerificationExecutor executor = new VerificationExecutor(1, 1, registry);
+		AuthenticationManager authManager = mock(AuthenticationManager.class);
+		when(authManager.authenticate(any())).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return invocation.getArgument(0);
+		});
+
+		for (int i = 0; i < 2; i++) {
+			requests.submit(() -> executor.authenticate(authManager,
+					new UsernamePasswordAuthenticationToken("mocked", "mocked")));
+		}
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (registry.get("auth.verification.queue.depth").gauge().value() < 1
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+
+		AuthFilter filter = new AuthFilter(authManager, new JwtConfig(), executor, null, null, null,
+				new ObjectMapper());
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setContent("{\"username\":\"mocked\",\"password\":\"mocked\"}".getBytes());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertNull(filter.attemptAuthentication(request, response));
+		assertEquals(503, response.getStatus());
+		assertEquals("1", response.getHeader("Retry-After"));
+		assertEquals(1.0, registry.get("auth.verification.rejected").counter().count(), 0);
+	}
+}
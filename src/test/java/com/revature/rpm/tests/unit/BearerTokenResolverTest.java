@@ -0,0 +1,89 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.revature.rpm.security.util.BearerTokenResolver;
+import com.revature.rpm.security.util.VerifiedToken;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+
+/**
+ * Test Suite for the BearerTokenResolver class. Verifies that tokens are only
+ * taken from the start of the token header or from the token cookie.
+ */
+public class BearerTokenResolverTest {
+
+	private final BearerTokenResolver resolver = new BearerTokenResolver("Authorization",
+			new String[] { "Bearer ", "JWT" }, "rpm_token");
+
+	/**
+	 * Tests that every accepted scheme is stripped, regardless of case and of
+	 * surrounding spaces. The expected result is the bare token.
+	 */
+	@Test
+	public void testFromHeaderStripsSchemes() {
+		assertEquals("a.b.c", resolver.fromHeader("Bearer a.b.c").toString());
+		assertEquals("a.b.c", resolver.fromHeader("bearer  a.b.c ").toString());
+		assertEquals("a.b.c", resolver.fromHeader("JWT a.b.c").toString());
+	}
+
+	/**
+	 * Tests that schemes are only matched at the start of the header, as a whole
+	 * word. The expected result is no token.
+	 */
+	@Test
+	public void testFromHeaderRejectsOtherSchemes() {
+		assertNull(resolver.fromHeader("Basic dXNlcjpwdw=="));
+		assertNull(resolver.fromHeader("Bearera.b.c"));
+		assertNull(resolver.fromHeader("x Bearer a.b.c"));
+		assertNull(resolver.fromHeader("Bearer   "));
+		assertNull(resolver.fromHeader(null));
+	}
+
+	/**
+	 * Tests that the token cookie is read only when the header carries no token.
+	 * The expected result is the header token over the cookie token.
+	 */
+	@Test
+	public void testResolvePrefersHeaderOverCookie() {
+		MockHttpServletRequest req = new MockHttpServletRequest("GET", "/users");
+		req.setCookies(new Cookie("rpm_token", "cookie.token"));
+		assertEquals("cookie.token", resolver.resolve(req).toString());
+
+		req.addHeader("Authorization", "Bearer header.token");
+		assertEquals("header.token", resolver.resolve(req).toString());
+	}
+
+	/**
+	 * Tests that the token cookie is ignored on state-changing requests, which a
+	 * cross-site page could forge. The expected result is no token.
+	 */
+	@Test
+	public void testResolveIgnoresCookieOnUnsafeMethods() {
+		MockHttpServletRequest req = new MockHttpServletRequest("POST", "/users");
+		req.setCookies(new Cookie("rpm_token", "cookie.token"));
+		assertNull(resolver.resolve(req));
+	}
+
+	/**
+	 * Tests that a view of a token finds the entry cached for the token itself. The
+	 * expected result is the same verified token.
+	 */
+	@Test
+	public void testViewHitsTokenCache() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		VerifiedToken verified = new VerifiedToken("user", Collections.emptyList(), "id", 0,
+				System.currentTimeMillis() + 60_000);
+		cache.put("a.b.c", verified);
+
+		assertSame(verified, cache.get(resolver.fromHeader("Bearer a.b.c")));
+	}
+}
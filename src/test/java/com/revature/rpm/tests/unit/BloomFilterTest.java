@@ -0,0 +1,59 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.revature.rpm.util.BloomFilter;
+
+/**
+ * Test Suite for the BloomFilter class. Verifies that values which were added
+ * are always reported as possibly present, and that the false positive rate
+ * stays close to the rate the filter was sized for.
+ */
+public class BloomFilterTest {
+
+	/**
+	 * Tests that every value added to a BloomFilter is reported by mightContain.
+	 * The expected result is that there are no false negatives.
+	 */
+	@Test
+	public void testNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user-" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("user-" + i));
+		}
+	}
+
+	/**
+	 * Tests the false positive rate of a BloomFilter filled to its expected number
+	 * of insertions. The expected result is a rate within a small margin of the
+	 * configured probability.
+	 */
+	@Test
+	public void testFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user-" + i + "@revature.com");
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other-" + i + "@revature.com")) {
+				falsePositives++;
+			}
+		}
+		assertTrue("false positive rate was " + falsePositives / 100_000.0, falsePositives < 2_000);
+	}
+
+	/**
+	 * Tests that an empty BloomFilter does not report any value as present.
+	 */
+	@Test
+	public void testEmptyFilter() {
+		BloomFilter filter = new BloomFilter(100, 0.01);
+		assertFalse(filter.mightContain("user"));
+		assertFalse(filter.mightContain(""));
+	}
+}
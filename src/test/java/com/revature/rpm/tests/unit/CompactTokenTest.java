@@ -0,0 +1,89 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import com.revature.rpm.security.util.CompactToken;
+import com.revature.rpm.security.util.RoleRegistry;
+import com.revature.rpm.security.util.SigningKey;
+import com.revature.rpm.security.util.VerifiedToken;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+
+/**
+ * Test Suite for the CompactToken class. Verifies that compact tokens carry the
+ * same claims as a JWT, and are rejected once tampered with or expired.
+ */
+public class CompactTokenTest {
+
+	private static final String[] ROLES = { "ROLE_USER", "ROLE_ADMIN" };
+
+	private static final byte[] TOKEN_ID = new byte[16];
+
+	private final RoleRegistry roleRegistry = new RoleRegistry(ROLES);
+
+	private final SigningKey key = SigningKey.hmac("mocked-secret");
+
+	/**
+	 * Tests that a compact token decodes to the claims it was encoded with. The
+	 * expected result is the same subject, ID, roles and times (in seconds).
+	 */
+	@Test
+	public void testRoundTrip() {
+		long now = System.currentTimeMillis();
+		String token = CompactToken.encode(TOKEN_ID, "mocked", AuthorityUtils.createAuthorityList("ROLE_ADMIN"), now,
+				now + 60_000, ROLES, key);
+
+		assertTrue(CompactToken.isCompact(token));
+		VerifiedToken verified = CompactToken.decode(token, roleRegistry, kid -> kid == null ? key : null);
+		assertEquals("mocked", verified.getUsername());
+		assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(TOKEN_ID), verified.getId());
+		assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), verified.getAuthorities());
+		assertEquals(now / 1000 * 1000, verified.getIssuedAt());
+		assertEquals((now + 60_000) / 1000 * 1000, verified.getExpiresAt());
+	}
+
+	/**
+	 * Tests that a user with a role compact tokens cannot carry is not issued one.
+	 * The expected result is null, so that a JWT is issued instead.
+	 */
+	@Test
+	public void testUnknownRole() {
+		long now = System.currentTimeMillis();
+		assertNull(CompactToken.encode(TOKEN_ID, "mocked", AuthorityUtils.createAuthorityList("ROLE_OTHER"), now,
+				now + 60_000, ROLES, key));
+		assertFalse(CompactToken.isCompact("a.b.c"));
+	}
+
+	/**
+	 * Tests that a compact token signed with another key is rejected. The expected
+	 * result is a SignatureException.
+	 */
+	@Test(expected = SignatureException.class)
+	public void testRejectsOtherKey() {
+		long now = System.currentTimeMillis();
+		String token = CompactToken.encode(TOKEN_ID, "mocked", AuthorityUtils.createAuthorityList("ROLE_USER"), now,
+				now + 60_000, ROLES, SigningKey.hmac("other-secret"));
+		CompactToken.decode(token, roleRegistry, kid -> key);
+	}
+
+	/**
+	 * Tests that an expired compact token is rejected. The expected result is an
+	 * ExpiredJwtException.
+	 */
+	@Test(expected = ExpiredJwtException.class)
+	public void testRejectsExpiredToken() {
+		long now = System.currentTimeMillis();
+		String token = CompactToken.encode(TOKEN_ID, "mocked", AuthorityUtils.createAuthorityList("ROLE_USER"),
+				now - 120_000, now - 60_000, ROLES, key);
+		CompactToken.decode(token, roleRegistry, kid -> key);
+	}
+}
@@ -0,0 +1,61 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.util.GatewayKeyring;
+
+/**
+ * Test Suite for the GatewayKeyring class. Verifies that the current digest is
+ * always accepted, previous digests only until they expire, and that nothing
+ * but an exact match is accepted.
+ */
+public class GatewayKeyringTest {
+
+	private static final long NOW = 1_000_000L;
+
+	private final GatewayKeyring keyring = new GatewayKeyring(new String[] { "c0ffee", "decade" },
+			new long[] { Long.MAX_VALUE, NOW + 1 });
+
+	/**
+	 * Tests that the current and previous digests are accepted while active. The
+	 * expected result is that the previous digest is rejected once it expires,
+	 * while the current one never is.
+	 */
+	@Test
+	public void testMatchesCurrentAndPreviousDigests() {
+		assertEquals("c0ffee", keyring.getCurrent());
+		assertTrue(keyring.matches("c0ffee", NOW));
+		assertTrue(keyring.matches("decade", NOW));
+
+		assertFalse(keyring.matches("decade", NOW + 1));
+		assertTrue(keyring.matches("c0ffee", Long.MAX_VALUE - 1));
+	}
+
+	/**
+	 * Tests that values differing from every digest are rejected, including
+	 * values of the same length, prefixes, extensions and a missing header. The
+	 * expected result is no match for any of them.
+	 */
+	@Test
+	public void testRejectsInexactValues() {
+		assertFalse(keyring.matches("c0ffef", NOW));
+		assertFalse(keyring.matches("C0FFEE", NOW));
+		assertFalse(keyring.matches("c0ffe", NOW));
+		assertFalse(keyring.matches("c0ffee0", NOW));
+		assertFalse(keyring.matches("", NOW));
+		assertFalse(keyring.matches(null, NOW));
+	}
+
+	/**
+	 * Tests that a keyring must have one expiry per digest. The expected result is
+	 * an IllegalArgumentException.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testRequiresOneExpiryPerDigest() {
+		new GatewayKeyring(new String[] { "c0ffee" }, new long[0]);
+	}
+}
@@ -0,0 +1,91 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.crypto.BCryptHashAlgorithm;
+import com.revature.rpm.security.crypto.HashAlgorithm;
+import com.revature.rpm.security.crypto.Pbkdf2HashAlgorithm;
+import com.revature.rpm.security.crypto.SCryptHashAlgorithm;
+
+/**
+ * Test Suite for the HashAlgorithm implementations. Verifies that each
+ * algorithm verifies its own hashes, reads back the cost it hashed with, and
+ * rejects malformed hashes rather than failing. Costs are kept low so that the
+ * suite stays fast.
+ */
+public class HashAlgorithmTest {
+
+	private static void assertRoundTrip(HashAlgorithm algorithm, int cost) {
+		String hash = algorithm.encode("p4ssw0rd", cost);
+
+		assertTrue(algorithm.isWellFormed(hash));
+		assertEquals(cost, algorithm.getCost(hash));
+		assertTrue(algorithm.matches("p4ssw0rd", hash));
+		assertFalse(algorithm.matches("wrong", hash));
+	}
+
+	/**
+	 * Tests that BCrypt hashes round-trip. The expected result is a match for the
+	 * hashed password only, and the log2 rounds as cost.
+	 */
+	@Test
+	public void testBCryptRoundTrip() {
+		assertRoundTrip(new BCryptHashAlgorithm(), 4);
+	}
+
+	/**
+	 * Tests that PBKDF2 hashes round-trip. The expected result is a match for the
+	 * hashed password only, and the iterations as cost.
+	 */
+	@Test
+	public void testPbkdf2RoundTrip() {
+		assertRoundTrip(new Pbkdf2HashAlgorithm(), 1000);
+	}
+
+	/**
+	 * Tests that SCrypt hashes round-trip. The expected result is a match for the
+	 * hashed password only, and N as cost.
+	 */
+	@Test
+	public void testSCryptRoundTrip() {
+		assertRoundTrip(new SCryptHashAlgorithm(), 1 << 10);
+	}
+
+	/**
+	 * Tests that BCrypt rejects values that only start like a hash, including a
+	 * plaintext password. The expected result is no match, rather than an
+	 * exception.
+	 */
+	@Test
+	public void testBCryptRejectsMalformedHashes() {
+		HashAlgorithm bcrypt = new BCryptHashAlgorithm();
+		String truncated = bcrypt.encode("p4ssw0rd", 4).substring(0, 40);
+
+		assertFalse(bcrypt.isWellFormed("$2a$10plaintext"));
+		assertFalse(bcrypt.isWellFormed(truncated));
+		assertFalse(bcrypt.matches("p4ssw0rd", truncated));
+		assertFalse(bcrypt.matches("p4ssw0rd", "$2a$99$" + truncated.substring(7) + "abcdefghijklm"));
+		assertEquals(-1, bcrypt.getCost("plaintext"));
+	}
+
+	/**
+	 * Tests that PBKDF2 and SCrypt reject malformed hashes. The expected result is
+	 * no match and no cost, rather than an exception.
+	 */
+	@Test
+	public void testPbkdf2AndSCryptRejectMalformedHashes() {
+		HashAlgorithm pbkdf2 = new Pbkdf2HashAlgorithm();
+		HashAlgorithm scrypt = new SCryptHashAlgorithm();
+
+		assertFalse(pbkdf2.isWellFormed("1000$salt$key"));
+		assertFalse(pbkdf2.matches("p4ssw0rd", "1000$salt$key"));
+		assertEquals(-1, pbkdf2.getCost("abc$salt$key"));
+		assertFalse(scrypt.isWellFormed("$zz$salt$key"));
+		assertFalse(scrypt.matches("p4ssw0rd", "$a0801$salt"));
+		assertEquals(-1, scrypt.getCost("plaintext"));
+	}
+}
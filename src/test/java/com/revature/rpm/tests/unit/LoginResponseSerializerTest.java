@@ -0,0 +1,42 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.rpm.dtos.LoginResponse;
+
+/**
+ * Test Suite for the LoginResponseSerializer class. Verifies that the
+ * hand-written serializer produces the same JSON as the default bean
+ * serializer would.
+ */
+public class LoginResponseSerializerTest {
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * Tests the serialization of a complete LoginResponse. The expected result is
+	 * an object containing exactly the id, username, role, expiresAt and
+	 * refreshToken fields.
+	 */
+	@Test
+	public void testSerialize() throws Exception {
+		LoginResponse response = new LoginResponse(1, "mocked", "ROLE_USER", 1234567890123L, "refresh");
+		assertEquals("{\"id\":1,\"username\":\"mocked\",\"role\":\"ROLE_USER\",\"expiresAt\":1234567890123,\"refreshToken\":\"refresh\"}",
+				mapper.writeValueAsString(response));
+	}
+
+	/**
+	 * Tests the serialization of a LoginResponse whose strings need escaping or
+	 * are null. The expected result is valid JSON with escaped and null values,
+	 * and without a refresh token.
+	 */
+	@Test
+	public void testSerializeEscapedAndNullValues() throws Exception {
+		LoginResponse response = new LoginResponse(2, "mo\"cked", null, 0, null);
+		assertEquals("{\"id\":2,\"username\":\"mo\\\"cked\",\"role\":null,\"expiresAt\":0}",
+				mapper.writeValueAsString(response));
+	}
+}
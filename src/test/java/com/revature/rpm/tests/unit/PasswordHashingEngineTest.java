@@ -0,0 +1,148 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.crypto.BCryptHashAlgorithm;
+import com.revature.rpm.security.crypto.HashAlgorithm;
+import com.revature.rpm.security.crypto.PasswordHashingEngine;
+import com.revature.rpm.security.crypto.Pbkdf2HashAlgorithm;
+
+/**
+ * Test Suite for the PasswordHashingEngine class. Verifies that hashes carry
+ * the id of their algorithm, that legacy hashes without one are still
+ * verified, which hashes are upgraded, and the bounds of the calibration.
+ */
+public class PasswordHashingEngineTest {
+
+	private final BCryptHashAlgorithm bcrypt = new BCryptHashAlgorithm();
+	private final Pbkdf2HashAlgorithm pbkdf2 = new Pbkdf2HashAlgorithm();
+
+	private final PasswordHashingEngine engine = new PasswordHashingEngine(Arrays.asList(bcrypt, pbkdf2),
+			BCryptHashAlgorithm.ID, 5);
+
+	/**
+	 * Tests that new hashes are prefixed with the id of the algorithm and verified
+	 * by it. The expected result is a match for the hashed password only.
+	 */
+	@Test
+	public void testEncodeAndMatchesWithPrefix() {
+		String hash = engine.encode("p4ssw0rd");
+
+		assertTrue(hash.startsWith("{bcrypt}$2"));
+		assertTrue(engine.matches("p4ssw0rd", hash));
+		assertFalse(engine.matches("wrong", hash));
+		assertTrue(engine.matches("p4ssw0rd", "{pbkdf2}" + pbkdf2.encode("p4ssw0rd", 1000)));
+	}
+
+	/**
+	 * Tests that hashes without a prefix are verified as BCrypt, and that unknown
+	 * or malformed hashes fail rather than throw. The expected result is a match
+	 * for the legacy hash only.
+	 */
+	@Test
+	public void testMatchesLegacyAndUnknownHashes() {
+		assertTrue(engine.matches("p4ssw0rd", bcrypt.encode("p4ssw0rd", 4)));
+		assertFalse(engine.matches("p4ssw0rd", "{md5}5f4dcc3b5aa765d61d8327deb882cf99"));
+		assertFalse(engine.matches("p4ssw0rd", "$2a$10$tooshort"));
+		assertFalse(engine.matches(null, engine.encode("p4ssw0rd")));
+	}
+
+	/**
+	 * Tests that hashes of another algorithm, without a prefix, or with a lower cost
+	 * are upgraded. The expected result is that hashes with the same or a higher
+	 * cost are kept.
+	 */
+	@Test
+	public void testUpgradeEncoding() {
+		assertTrue(engine.upgradeEncoding(bcrypt.encode("p4ssw0rd", 5)));
+		assertTrue(engine.upgradeEncoding("{pbkdf2}" + pbkdf2.encode("p4ssw0rd", 1000)));
+		assertTrue(engine.upgradeEncoding("{bcrypt}" + bcrypt.encode("p4ssw0rd", 4)));
+		assertFalse(engine.upgradeEncoding("{bcrypt}" + bcrypt.encode("p4ssw0rd", 5)));
+		assertFalse(engine.upgradeEncoding("{bcrypt}" + bcrypt.encode("p4ssw0rd", 6)));
+	}
+
+	/**
+	 * Tests that only well-formed hashes count as encoded. The expected result is
+	 * that a plaintext password that starts like a BCrypt hash is not.
+	 */
+	@Test
+	public void testIsEncoded() {
+		assertTrue(engine.isEncoded(engine.encode("p4ssw0rd")));
+		assertTrue(engine.isEncoded(bcrypt.encode("p4ssw0rd", 4)));
+		assertFalse(engine.isEncoded("$2a$10plaintext"));
+		assertFalse(engine.isEncoded("{bcrypt}plaintext"));
+		assertFalse(engine.isEncoded("plaintext"));
+	}
+
+	/**
+	 * Tests the bounds of the calibration. The expected result is the maximum cost
+	 * for an instant algorithm, and the minimum cost when no cost meets the
+	 * target.
+	 */
+	@Test
+	public void testCalibrateBounds() {
+		assertEquals(64, PasswordHashingEngine.calibrate(new SleepingAlgorithm(0), 1000));
+		assertEquals(1, PasswordHashingEngine.calibrate(new SleepingAlgorithm(5), 0));
+	}
+
+	/** A fake algorithm whose hashing time does not depend on the host. */
+	private static class SleepingAlgorithm implements HashAlgorithm {
+
+		private final long sleepMillis;
+
+		SleepingAlgorithm(long sleepMillis) {
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public String getId() {
+			return "sleeping";
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword, int cost) {
+			try {
+				Thread.sleep(sleepMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return String.valueOf(cost);
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String hash) {
+			return false;
+		}
+
+		@Override
+		public boolean isWellFormed(String hash) {
+			return false;
+		}
+
+		@Override
+		public int getCost(String hash) {
+			return -1;
+		}
+
+		@Override
+		public int getMinimumCost() {
+			return 1;
+		}
+
+		@Override
+		public int getMaximumCost() {
+			return 64;
+		}
+
+		@Override
+		public int nextCost(int cost) {
+			return cost * 2;
+		}
+	}
+}
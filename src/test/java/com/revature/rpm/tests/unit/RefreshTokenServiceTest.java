@@ -0,0 +1,138 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.entities.RefreshToken;
+import com.revature.rpm.exceptions.InvalidRefreshTokenException;
+import com.revature.rpm.repositories.RefreshTokenRepository;
+import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.config.JwtConfig;
+import com.revature.rpm.services.RefreshTokenService;
+import com.revature.rpm.services.RefreshTokenService.Rotation;
+
+/**
+ * Test Suite for the RefreshTokenService class. Verifies that refresh tokens
+ * are only stored as digests, that each token can be exchanged once, and that
+ * presenting a used token revokes its whole family.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RefreshTokenServiceTest {
+
+	@Mock
+	RefreshTokenRepository mockRepo;
+
+	@Mock
+	UserRepository mockUserRepo;
+
+	@Mock
+	JwtConfig mockJwtConfig;
+
+	AppUser mockedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
+
+	/**
+	 * Issues a token through a new RefreshTokenService, capturing the entity it
+	 * saved.
+	 */
+	private RefreshToken issue(RefreshTokenService service, String[] token) {
+		when(mockJwtConfig.getRefreshExpiration()).thenReturn(60_000L);
+		when(mockJwtConfig.getRefreshMaxLifetime()).thenReturn(600_000L);
+		token[0] = service.issue(mockedUser);
+		ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+		verify(mockRepo, times(1)).save(saved.capture());
+		return saved.getValue();
+	}
+
+	/**
+	 * Tests that issuing a token stores its digest rather than the token itself.
+	 * The expected result is a token that expires before its family does.
+	 */
+	@Test
+	public void testIssueStoresDigest() {
+		RefreshTokenService service = new RefreshTokenService(mockRepo, mockUserRepo, mockJwtConfig);
+		String[] token = new String[1];
+		RefreshToken saved = issue(service, token);
+		assertNotEquals(token[0], saved.getTokenHash());
+		assertEquals(Integer.valueOf(1), saved.getUserId());
+		assertTrue(saved.getExpiresAt() < saved.getFamilyExpiresAt());
+	}
+
+	/**
+	 * Tests that a valid token is exchanged for a new token of the same family.
+	 * The expected result is that the old token is marked as rotated.
+	 */
+	@Test
+	public void testRotateValidToken() {
+		RefreshTokenService service = new RefreshTokenService(mockRepo, mockUserRepo, mockJwtConfig);
+		String[] token = new String[1];
+		RefreshToken saved = issue(service, token);
+		saved.setId(5L);
+		when(mockRepo.findByTokenHash(saved.getTokenHash())).thenReturn(saved);
+		when(mockRepo.markRotated(5L)).thenReturn(1);
+		when(mockUserRepo.findById(1)).thenReturn(Optional.of(mockedUser));
+
+		Rotation rotation = service.rotate(token[0]);
+
+		assertEquals(mockedUser, rotation.getUser());
+		assertNotEquals(token[0], rotation.getToken());
+		ArgumentCaptor<RefreshToken> rotated = ArgumentCaptor.forClass(RefreshToken.class);
+		verify(mockRepo, times(2)).save(rotated.capture());
+		assertEquals(saved.getFamily(), rotated.getValue().getFamily());
+		verify(mockRepo, never()).deleteFamily(anyString());
+	}
+
+	/**
+	 * Tests that presenting a token which was already rotated revokes its family.
+	 * The expected result is an InvalidRefreshTokenException marked as reused.
+	 */
+	@Test
+	public void testRotateReusedTokenRevokesFamily() {
+		RefreshTokenService service = new RefreshTokenService(mockRepo, mockUserRepo, mockJwtConfig);
+		String[] token = new String[1];
+		RefreshToken saved = issue(service, token);
+		saved.setRotated(true);
+		when(mockRepo.findByTokenHash(saved.getTokenHash())).thenReturn(saved);
+
+		try {
+			service.rotate(token[0]);
+			fail("Expected InvalidRefreshTokenException");
+		} catch (InvalidRefreshTokenException irte) {
+			assertTrue(irte.isReused());
+		}
+		verify(mockRepo, times(1)).deleteFamily(saved.getFamily());
+		verify(mockRepo, times(1)).save(any());
+	}
+
+	/**
+	 * Tests that an unknown token is rejected. The expected result is an
+	 * InvalidRefreshTokenException that is not marked as reused.
+	 */
+	@Test
+	public void testRotateUnknownToken() {
+		RefreshTokenService service = new RefreshTokenService(mockRepo, mockUserRepo, mockJwtConfig);
+		try {
+			service.rotate("unknown");
+			fail("Expected InvalidRefreshTokenException");
+		} catch (InvalidRefreshTokenException irte) {
+			assertFalse(irte.isReused());
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import com.revature.rpm.security.util.RoleRegistry;
+
+/**
+ * Test Suite for the RoleRegistry class. Verifies that equal role combinations
+ * share the same authorities, however they are looked up.
+ */
+public class RoleRegistryTest {
+
+	private final RoleRegistry roleRegistry = new RoleRegistry(new String[] { "ROLE_USER", "ROLE_ADMIN" });
+
+	/**
+	 * Tests that comma-separated roles resolve to the same authorities as
+	 * AuthorityUtils builds. The expected result is one list per combination, whose
+	 * authorities are shared with the role bitmask lookup.
+	 */
+	@Test
+	public void testGetAuthoritiesInternsCombinations() {
+		List<GrantedAuthority> byRoles = roleRegistry.getAuthorities("ROLE_USER, ROLE_ADMIN");
+
+		assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"), byRoles);
+		assertSame(byRoles, roleRegistry.getAuthorities("ROLE_USER, ROLE_ADMIN"));
+		assertSame(byRoles.get(1), roleRegistry.getAuthorities(0b10).get(0));
+		assertSame(roleRegistry.getAuthority("ROLE_USER"), roleRegistry.getAuthorities("ROLE_USER").get(0));
+	}
+
+	/**
+	 * Tests that unknown bits and missing roles resolve to no authorities. The
+	 * expected result is an empty list for both.
+	 */
+	@Test
+	public void testGetAuthoritiesWithoutRoles() {
+		assertTrue(roleRegistry.getAuthorities(0b100).isEmpty());
+		assertTrue(roleRegistry.getAuthorities((String) null).isEmpty());
+	}
+
+	/**
+	 * Tests that the interned authorities cannot be modified by their callers.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetAuthoritiesIsUnmodifiable() {
+		roleRegistry.getAuthorities("ROLE_USER").clear();
+	}
+}
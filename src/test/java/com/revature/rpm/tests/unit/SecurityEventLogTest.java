@@ -0,0 +1,136 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import com.revature.rpm.security.events.SecurityEventLog;
+import com.revature.rpm.security.events.SecurityEventType;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test Suite for the SecurityEventLog class. Verifies that every event is
+ * counted, that only a bounded number of events of each type is logged in
+ * detail per second, and that the number suppressed is reported.
+ */
+public class SecurityEventLogTest {
+
+	private static final long SECOND = 1_700_000_000_000L;
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final SecurityEventLog eventLog = new SecurityEventLog(2, registry);
+
+	private final Logger logger = (Logger) LoggerFactory.getLogger(SecurityEventLog.class);
+
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	@Before
+	public void captureLogs() {
+		logger.setLevel(Level.INFO);
+		appender.start();
+		logger.addAppender(appender);
+	}
+
+	@After
+	public void detachAppender() {
+		logger.detachAppender(appender);
+		logger.setLevel(null);
+	}
+
+	/**
+	 * Tests a burst of events of one type within a second. The expected result is
+	 * that every event is counted, the first two are logged in detail, and the
+	 * rest are reported as suppressed once the next second begins.
+	 */
+	@Test
+	public void testDetailIsLimitedPerSecond() {
+		for (int i = 0; i < 5; i++) {
+			eventLog.record(SecurityEventType.REJECTED, "user" + i, "10.0.0.1", "bad credentials", SECOND + i);
+		}
+		assertEquals(5.0, count("rejected"), 0);
+		assertEquals(2, messages().size());
+
+		eventLog.record(SecurityEventType.REJECTED, "user5", "10.0.0.1", "bad credentials", SECOND + 1000);
+
+		List<String> messages = messages();
+		assertEquals(4, messages.size());
+		assertEquals("event=REJECTED subject=user0 remote=10.0.0.1 detail=bad credentials", messages.get(0));
+		assertEquals("event=REJECTED suppressed=3", messages.get(2));
+		assertEquals("event=REJECTED subject=user5 remote=10.0.0.1 detail=bad credentials", messages.get(3));
+		assertEquals(6.0, count("rejected"), 0);
+	}
+
+	/**
+	 * Tests events of different types within the same second. The expected result
+	 * is that each type has its own limit and its own counter, tagged with the
+	 * lower case name of the type.
+	 */
+	@Test
+	public void testLimitAndCountersArePerType() {
+		for (int i = 0; i < 3; i++) {
+			eventLog.record(SecurityEventType.SUBVERTED, null, "10.0.0.1", "missing header", SECOND);
+		}
+		eventLog.record(SecurityEventType.ISSUED, "admin", "10.0.0.2", "login", SECOND);
+
+		assertEquals(3.0, count("subverted"), 0);
+		assertEquals(1.0, count("issued"), 0);
+		assertEquals(0.0, count("reused"), 0);
+		assertEquals(3, messages().size());
+		assertEquals("event=ISSUED subject=admin remote=10.0.0.2 detail=login", messages().get(2));
+	}
+
+	/**
+	 * Tests events recorded while INFO logging is disabled. The expected result is
+	 * that they are still counted, but nothing is logged.
+	 */
+	@Test
+	public void testEventsAreCountedWhenLoggingIsDisabled() {
+		logger.setLevel(Level.WARN);
+
+		eventLog.record(SecurityEventType.REUSED, "admin", "10.0.0.1", "family revoked", SECOND);
+
+		assertEquals(1.0, count("reused"), 0);
+		assertEquals(0, messages().size());
+	}
+
+	/**
+	 * Tests the counter tags under a default locale with different case rules.
+	 * The expected result is that the tags do not depend on the locale, e.g. that
+	 * ISSUED is not tagged with a dotless i in Turkish.
+	 */
+	@Test
+	public void testCounterTagsIgnoreDefaultLocale() {
+		Locale previous = Locale.getDefault();
+		Locale.setDefault(new Locale("tr", "TR"));
+		try {
+			MeterRegistry turkish = new SimpleMeterRegistry();
+			new SecurityEventLog(2, turkish).record(SecurityEventType.ISSUED, "admin", "10.0.0.1", "login", SECOND);
+
+			assertEquals(1.0, turkish.get("auth.security.events").tag("type", "issued").counter().count(), 0);
+		} finally {
+			Locale.setDefault(previous);
+		}
+	}
+
+	private double count(String type) {
+		return registry.get("auth.security.events").tag("type", type).counter().count();
+	}
+
+	private List<String> messages() {
+		return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,76 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.util.SigningKey;
+import com.revature.rpm.security.util.SigningKeyRing;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Test Suite for the SigningKeyRing class. Verifies which key signs at a given
+ * time, and that only public keys are published.
+ */
+public class SigningKeyRingTest {
+
+	private static SigningKey key(String kid, KeyPair pair, long activatesAt, long retiresAt) {
+		return new SigningKey(kid, SignatureAlgorithm.ES256, pair.getPrivate(), pair.getPublic(), activatesAt,
+				retiresAt);
+	}
+
+	private static KeyPair pair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(256);
+		return generator.generateKeyPair();
+	}
+
+	/**
+	 * Tests that the most recently activated key signs. The expected result is
+	 * that a key published in advance does not sign before it activates, and that
+	 * a key without a private key never signs.
+	 */
+	@Test
+	public void testGetCurrent() throws Exception {
+		KeyPair pair = pair();
+		SigningKey retired = key("retired", pair, 0, 1_000);
+		SigningKey active = key("active", pair, 1_000, 2_000);
+		SigningKey next = key("next", pair, 2_000, 3_000);
+		SigningKey verifyOnly = new SigningKey("verifyOnly", SignatureAlgorithm.ES256, null, pair.getPublic(), 1_500,
+				2_500);
+		SigningKeyRing ring = new SigningKeyRing(Arrays.asList(retired, next, verifyOnly, active));
+
+		assertSame(active, ring.getCurrent(1_999));
+		assertSame(next, ring.getCurrent(2_000));
+		assertNull(ring.getCurrent(-1));
+		assertSame(retired, ring.get("retired"));
+		assertNull(ring.get("unknown"));
+	}
+
+	/**
+	 * Tests that the key set exports every asymmetric key as a JWK. The expected
+	 * result is that the shared secret is not exported.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testGetJwks() throws Exception {
+		SigningKeyRing ring = new SigningKeyRing(
+				Arrays.asList(key("ec", pair(), 0, 1_000), SigningKey.hmac("mocked-secret")));
+
+		List<Map<String, Object>> keys = (List<Map<String, Object>>) ring.getJwks().get("keys");
+		assertEquals(1, keys.size());
+		assertEquals("ec", keys.get(0).get("kid"));
+		assertEquals("P-256", keys.get(0).get("crv"));
+		assertEquals(43, ((String) keys.get(0).get("x")).length());
+		assertNull(keys.get(0).get("d"));
+	}
+}
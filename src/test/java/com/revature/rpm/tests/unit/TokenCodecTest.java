@@ -0,0 +1,77 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.util.SigningKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.crypto.EllipticCurveProvider;
+
+/**
+ * Test Suite for the TokenCodec class. Verifies that tokens signed by the codec
+ * are verified by it and by jjwt, and the other way around.
+ */
+public class TokenCodecTest {
+
+	private static final byte[] PAYLOAD = "{\"sub\":\"mocked\"}".getBytes(StandardCharsets.UTF_8);
+
+	private static SigningKey ecKey() {
+		KeyPair pair = EllipticCurveProvider.generateKeyPair(SignatureAlgorithm.ES256);
+		return new SigningKey("mocked", SignatureAlgorithm.ES256, pair.getPrivate(), pair.getPublic(), 0,
+				Long.MAX_VALUE);
+	}
+
+	/**
+	 * Tests that tokens signed by the codec are verified by jjwt, and tokens signed
+	 * by jjwt are verified by the codec. The expected result is the same header and
+	 * payload either way.
+	 */
+	@Test
+	public void testInteroperatesWithJjwt() {
+		SigningKey hmac = SigningKey.hmac("mocked-secret");
+		String token = hmac.getCodec().sign(PAYLOAD);
+		assertEquals("mocked", Jwts.parser().setSigningKey(hmac.getVerificationKey()).parseClaimsJws(token)
+				.getBody().getSubject());
+
+		SigningKey ec = ecKey();
+		token = Jwts.builder().setSubject("mocked").setHeaderParam(JwsHeader.KEY_ID, "mocked")
+				.signWith(SignatureAlgorithm.ES256, ec.getSigningKey()).compact();
+		assertArrayEquals(PAYLOAD, ec.getCodec().verify(token));
+		assertEquals(ec.getCodec().getEncodedHeader(), token.substring(0, token.indexOf('.')));
+
+		Claims claims = Jwts.parser().setSigningKey(ec.getVerificationKey())
+				.parseClaimsJws(ec.getCodec().sign(PAYLOAD)).getBody();
+		assertEquals("mocked", claims.getSubject());
+	}
+
+	/**
+	 * Tests that a token whose payload was changed is rejected. The expected result
+	 * is a SignatureException.
+	 */
+	@Test(expected = SignatureException.class)
+	public void testRejectsTamperedToken() {
+		SigningKey ec = ecKey();
+		String[] parts = ec.getCodec().sign(PAYLOAD).split("\\.");
+		ec.getCodec().verify(parts[0] + ".eyJzdWIiOiJhZG1pbiJ9." + parts[2]);
+	}
+
+	/**
+	 * Tests that a token that is not a compact JWS is rejected. The expected result
+	 * is a MalformedJwtException.
+	 */
+	@Test(expected = MalformedJwtException.class)
+	public void testRejectsMalformedToken() {
+		SigningKey.hmac("mocked-secret").getCodec().verify("not-a-token");
+	}
+}
@@ -0,0 +1,67 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.util.TokenRevocationList;
+import com.revature.rpm.security.util.VerifiedToken;
+
+/**
+ * Test Suite for the TokenRevocationList class. Verifies that revoked tokens
+ * are rejected, that other tokens are not, and that revocations are dropped
+ * once they no longer cover any unexpired token.
+ */
+public class TokenRevocationListTest {
+
+	private static VerifiedToken token(String username, String id, long issuedAt, long expiresAt) {
+		return new VerifiedToken(username, Collections.emptyList(), id, issuedAt, expiresAt);
+	}
+
+	/**
+	 * Tests that a token revoked by its ID is rejected. The expected result is
+	 * that other tokens expiring at the same time are not.
+	 */
+	@Test
+	public void testRevokeById() {
+		TokenRevocationList list = new TokenRevocationList(60_000, 900_000);
+		long now = System.currentTimeMillis();
+		list.revoke("revoked", now + 60_000);
+		assertTrue(list.isRevoked(token("mocked", "revoked", now, now + 60_000)));
+		assertFalse(list.isRevoked(token("mocked", "other", now, now + 60_000)));
+	}
+
+	/**
+	 * Tests that revoking a user rejects every token issued to them before the
+	 * revocation, regardless of the case of their username. The expected result
+	 * is that tokens issued later, and tokens of other users, are not rejected.
+	 */
+	@Test
+	public void testRevokeUser() {
+		TokenRevocationList list = new TokenRevocationList(60_000, 900_000);
+		long now = System.currentTimeMillis();
+		list.revokeUser("Mocked", now);
+		assertTrue(list.isRevoked(token("mocked", "a", now - 1_000, now + 60_000)));
+		assertFalse(list.isRevoked(token("mocked", "b", now + 1_000, now + 60_000)));
+		assertFalse(list.isRevoked(token("other", "c", now - 1_000, now + 60_000)));
+	}
+
+	/**
+	 * Tests that pruning drops the revocations that no longer cover an unexpired
+	 * token. The expected result is an empty list.
+	 */
+	@Test
+	public void testPrune() {
+		TokenRevocationList list = new TokenRevocationList(60_000, 900_000);
+		long now = System.currentTimeMillis();
+		list.revoke("revoked", now + 60_000);
+		list.revokeUser("mocked", now);
+		assertEquals(2, list.size());
+		list.prune(now + 1_000_000);
+		assertEquals(0, list.size());
+	}
+}
@@ -0,0 +1,92 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.revature.rpm.dtos.LoginResponse;
+import com.revature.rpm.dtos.RefreshTokenRequest;
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.util.TraceValue;
+
+/**
+ * Test Suite for the TraceValue class. Verifies that passwords, secrets and
+ * tokens are never rendered in clear, however they are passed or returned.
+ */
+public class TraceValueTest {
+
+	private static final String PASSWORD = "p4ssw0rd";
+
+	private static final String REFRESH_TOKEN = "r3fr3sh-t0k3n";
+
+	private final AppUser user = new AppUser(1, "Adam", "Inn", "admin@revature.com", "admin", PASSWORD,
+			"ROLE_ADMIN");
+
+	/**
+	 * Tests that a user is reduced to its id. The expected result is that neither
+	 * its password nor any other field is rendered.
+	 */
+	@Test
+	public void testAppUserIsReducedToId() {
+		assertEquals("AppUser[id=1]", TraceValue.of(user).toString());
+		assertEquals("[user=AppUser[id=1]]",
+				TraceValue.ofArguments(new String[] { "user" }, new Object[] { user }).toString());
+	}
+
+	/**
+	 * Tests that a user wrapped in a response or an optional is still reduced to
+	 * its id. The expected result is that its password is not rendered.
+	 */
+	@Test
+	public void testWrappedAppUserIsReducedToId() {
+		assertEquals("ResponseEntity[AppUser[id=1]]", TraceValue.of(ResponseEntity.ok(user)).toString());
+		assertEquals("Optional[AppUser[id=1]]", TraceValue.of(Optional.of(user)).toString());
+		assertEquals("Optional[null]", TraceValue.of(Optional.empty()).toString());
+	}
+
+	/**
+	 * Tests that refresh tokens are redacted whether passed in a request or
+	 * returned in a response, regardless of the name of the parameter. The
+	 * expected result is that the token is not rendered.
+	 */
+	@Test
+	public void testRefreshTokensAreRedacted() {
+		RefreshTokenRequest request = new RefreshTokenRequest();
+		request.setRefreshToken(REFRESH_TOKEN);
+		LoginResponse response = new LoginResponse(1, "admin", "ROLE_ADMIN", 0, REFRESH_TOKEN);
+
+		assertEquals("[body=RefreshTokenRequest[redacted]]",
+				TraceValue.ofArguments(new String[] { "body" }, new Object[] { request }).toString());
+		assertEquals("RefreshTokenRequest[redacted]", TraceValue.of(request).toString());
+		assertEquals("ResponseEntity[LoginResponse[redacted]]",
+				TraceValue.of(ResponseEntity.ok(response)).toString());
+	}
+
+	/**
+	 * Tests that arguments named after a password, secret or token are hidden,
+	 * whatever their value. The expected result is that only the other arguments
+	 * are rendered.
+	 */
+	@Test
+	public void testSensitiveArgumentsAreHidden() {
+		String rendered = TraceValue.ofArguments(new String[] { "username", "password", "newPassword", "secret", "token" },
+				new Object[] { "admin", PASSWORD, PASSWORD, "s3cr3t", REFRESH_TOKEN }).toString();
+
+		assertEquals("[username=admin, password=[redacted], newPassword=[redacted], secret=[redacted], "
+				+ "token=[redacted]]", rendered);
+	}
+
+	/**
+	 * Tests that a hidden value is never rendered. The expected result is the
+	 * redaction marker only.
+	 */
+	@Test
+	public void testHiddenValue() {
+		assertEquals("[redacted]", TraceValue.hidden().toString());
+		assertFalse(TraceValue.hidden().toString().contains(REFRESH_TOKEN));
+	}
+}
@@ -0,0 +1,132 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.revature.rpm.entities.AppUser;
+import com.revature.rpm.util.Redacted;
+import com.revature.rpm.util.TracingAspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Test Suite for the TracingAspect class. Verifies that the messages it writes
+ * at TRACE never render a password or a token in clear.
+ */
+public class TracingAspectTest {
+
+	private static final String PASSWORD = "p4ssw0rd";
+
+	private static final String REFRESH_TOKEN = "r3fr3sh-t0k3n";
+
+	private final TracingAspect aspect = new TracingAspect();
+
+	private final Logger logger = (Logger) LoggerFactory.getLogger(TracedService.class);
+
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	@Before
+	public void traceEverything() {
+		ReflectionTestUtils.setField(aspect, "sampleRate", 1.0);
+		logger.setLevel(Level.TRACE);
+		appender.start();
+		logger.addAppender(appender);
+	}
+
+	@After
+	public void detachAppender() {
+		logger.detachAppender(appender);
+		logger.setLevel(null);
+	}
+
+	/**
+	 * Tests tracing a method taking a user and a password argument. The expected
+	 * result is that the user is reduced to its id and the password is hidden.
+	 */
+	@Test
+	public void testArgumentsAreRedacted() throws Throwable {
+		AppUser user = new AppUser(1, "Adam", "Inn", "admin@revature.com", "admin", PASSWORD, "ROLE_ADMIN");
+		ProceedingJoinPoint pjp = invocation("changePassword", new Object[] { user, PASSWORD }, true);
+
+		aspect.trace(pjp);
+
+		assertEquals("changePassword invoked with [user=AppUser[id=1], password=[redacted]]", message(0));
+		assertEquals(2, appender.list.size());
+		assertNotRendered(PASSWORD);
+	}
+
+	/**
+	 * Tests tracing a method annotated with Redacted that returns a token. The
+	 * expected result is that the invocation is logged, but not the token.
+	 */
+	@Test
+	public void testRedactedReturnValueIsHidden() throws Throwable {
+		ProceedingJoinPoint pjp = invocation("issue", new Object[] { null }, REFRESH_TOKEN);
+
+		assertEquals(REFRESH_TOKEN, aspect.trace(pjp));
+
+		assertEquals(2, appender.list.size());
+		assertFalse(message(1), message(1).contains(REFRESH_TOKEN));
+		assertNotRendered(REFRESH_TOKEN);
+	}
+
+	private String message(int index) {
+		return appender.list.get(index).getFormattedMessage();
+	}
+
+	private void assertNotRendered(String value) {
+		for (ILoggingEvent event : appender.list) {
+			assertFalse(event.getFormattedMessage(), event.getFormattedMessage().contains(value));
+		}
+	}
+
+	private static ProceedingJoinPoint invocation(String name, Object[] args, Object rtrn) throws Throwable {
+		Method method = null;
+		for (Method candidate : TracedService.class.getDeclaredMethods()) {
+			if (candidate.getName().equals(name)) {
+				method = candidate;
+			}
+		}
+		String[] names = name.equals("issue") ? new String[] { "user" } : new String[] { "user", "password" };
+
+		MethodSignature signature = mock(MethodSignature.class);
+		when(signature.getDeclaringType()).thenReturn(TracedService.class);
+		when(signature.getName()).thenReturn(name);
+		when(signature.getParameterNames()).thenReturn(names);
+		when(signature.getMethod()).thenReturn(method);
+
+		ProceedingJoinPoint pjp = mock(ProceedingJoinPoint.class);
+		when(pjp.getSignature()).thenReturn(signature);
+		when(pjp.getArgs()).thenReturn(args);
+		when(pjp.proceed()).thenReturn(rtrn);
+		return pjp;
+	}
+
+	/** The service whose invocations are traced. */
+	static class TracedService {
+
+		boolean changePassword(AppUser user, String password) {
+			return true;
+		}
+
+		@Redacted
+		String issue(AppUser user) {
+			return REFRESH_TOKEN;
+		}
+	}
+}
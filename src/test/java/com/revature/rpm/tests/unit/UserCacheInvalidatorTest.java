@@ -0,0 +1,139 @@
+package com.revature.rpm.tests.unit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.core.userdetails.UserCache;
+
+import com.revature.rpm.invalidation.LoopbackInvalidationTransport;
+import com.revature.rpm.invalidation.UserCacheInvalidator;
+import com.revature.rpm.invalidation.UserChangeType;
+import com.revature.rpm.invalidation.UserChangedEvent;
+import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.util.TokenRevocationList;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+import com.revature.rpm.services.AvailabilityIndex;
+
+/**
+ * Test Suite for the UserCacheInvalidator class. Events are published on a
+ * LoopbackInvalidationTransport, and the caches of the node are verified to be
+ * evicted accordingly.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserCacheInvalidatorTest {
+
+	@Mock
+	UserRepository mockRepo;
+
+	@Mock
+	UserCache mockUserCache;
+
+	@Mock
+	VerifiedTokenCache mockTokenCache;
+
+	@Mock
+	TokenRevocationList mockRevocationList;
+
+	@Mock
+	AvailabilityIndex mockAvailabilityIndex;
+
+	LoopbackInvalidationTransport transport;
+
+	@Before
+	public void setup() {
+		transport = new LoopbackInvalidationTransport();
+		new UserCacheInvalidator(transport, mockRepo, mockUserCache, mockTokenCache, mockRevocationList,
+				mockAvailabilityIndex);
+	}
+
+	/**
+	 * Tests that an UPDATED event evicts the user from the second-level cache and
+	 * the user cache. The expected result is that the user's verified tokens are
+	 * kept.
+	 */
+	@Test
+	public void testUpdatedEvictsUser() {
+		transport.publish(new UserChangedEvent(UserChangeType.UPDATED, 1, "mocked", null, null));
+		verify(mockRepo, times(1)).evictFromCache(1, false, false);
+		verify(mockUserCache, times(1)).removeUserFromCache("mocked");
+		verify(mockTokenCache, never()).invalidateUser("mocked");
+		verifyZeroInteractions(mockRevocationList, mockAvailabilityIndex);
+	}
+
+	/**
+	 * Tests that a ROLE_CHANGED event also evicts and revokes the tokens of the
+	 * user. The expected result is that tokens carrying the old role are rejected.
+	 */
+	@Test
+	public void testRoleChangedEvictsTokens() {
+		transport.publish(new UserChangedEvent(UserChangeType.ROLE_CHANGED, 1, "mocked", null, null));
+		verify(mockRepo, times(1)).evictFromCache(1, false, false);
+		verify(mockUserCache, times(1)).removeUserFromCache("mocked");
+		verify(mockTokenCache, times(1)).invalidateUser("mocked");
+		verify(mockRevocationList, times(1)).revokeUser(eq("mocked"), anyLong());
+	}
+
+	/**
+	 * Tests that a DELETED event evicts everything cached about the user. The
+	 * expected result is that the availability filters are told a value was
+	 * removed.
+	 */
+	@Test
+	public void testDeletedEvictsEverything() {
+		transport.publish(new UserChangedEvent(UserChangeType.DELETED, 1, "mocked", null, null));
+		verify(mockRepo, times(1)).evictFromCache(1, true, true);
+		verify(mockUserCache, times(1)).removeUserFromCache("mocked");
+		verify(mockTokenCache, times(1)).invalidateUser("mocked");
+		verify(mockAvailabilityIndex, times(1)).remove();
+	}
+
+	/**
+	 * Tests that an UPDATED event that changes the username evicts the username
+	 * resolutions, but not the email address lookups. The expected result is that
+	 * the user's tokens are revoked, as they carry the old username.
+	 */
+	@Test
+	public void testUsernameChangedEvictsUsernameLookups() {
+		transport.publish(new UserChangedEvent(UserChangeType.UPDATED, 1, "mocked", "renamed", null));
+		verify(mockRepo, times(1)).evictFromCache(1, true, false);
+		verify(mockTokenCache, times(1)).invalidateUser("mocked");
+		verify(mockAvailabilityIndex, times(1)).add("renamed", null);
+	}
+
+	/**
+	 * Tests that a CREATED event adds the new username and email to the
+	 * availability filters. The expected result is that nothing is evicted, as
+	 * nothing can be cached about a new user.
+	 */
+	@Test
+	public void testCreatedAddsToAvailabilityIndex() {
+		transport.publish(new UserChangedEvent(UserChangeType.CREATED, 1, "mocked", "mocked", "mocked@email.com"));
+		verify(mockAvailabilityIndex, times(1)).add("mocked", "mocked@email.com");
+		verifyZeroInteractions(mockRepo, mockUserCache, mockTokenCache, mockRevocationList);
+	}
+
+	/**
+	 * Tests that a TOKEN_REVOKED event adds the token to the revocation list. The
+	 * expected result is that nothing is evicted, as the user is unchanged.
+	 */
+	@Test
+	public void testTokenRevokedAddsToRevocationList() {
+		UserChangedEvent event = new UserChangedEvent(UserChangeType.TOKEN_REVOKED, null, "mocked", null, null);
+		event.setTokenId("jti");
+		event.setTokenExpiresAt(1234L);
+		transport.publish(event);
+		verify(mockRevocationList, times(1)).revoke("jti", 1234L);
+		verify(mockRevocationList, never()).revokeUser(anyString(), anyLong());
+		verifyZeroInteractions(mockRepo, mockUserCache, mockTokenCache, mockAvailabilityIndex);
+	}
+}
@@ -4,37 +4,54 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import com.revature.rpm.dtos.UserPrincipal;
 import com.revature.rpm.entities.AppUser;
 import com.revature.rpm.exceptions.BadRequestException;
 import com.revature.rpm.exceptions.UserCreationException;
 import com.revature.rpm.exceptions.UserNotFoundException;
 import com.revature.rpm.exceptions.UserUpdateException;
+import com.revature.rpm.invalidation.UserChangeType;
+import com.revature.rpm.invalidation.UserChangedEvent;
 import com.revature.rpm.repositories.UserRepository;
+import com.revature.rpm.security.crypto.PasswordHashingEngine;
+import com.revature.rpm.security.util.RoleRegistry;
+import com.revature.rpm.services.AvailabilityIndex;
 import com.revature.rpm.services.UserService;
 
 /**
  * Test Suite for the UserService class. Methods unit tested in this suite include:<br>
  * <br>
- * - findAllUsers: List&lt;AppUser&gt;<br>
+ * - findAllUsers: Page&lt;AppUser&gt;<br>
+ * - findUsersAfter: Slice&lt;AppUser&gt;<br>
  * - findUserById: AppUser<br>
  * - findUserByUsername: AppUser<br>
  * - findUserByEmail: AppUser<br>
@@ -45,6 +62,7 @@ import com.revature.rpm.services.UserService;
  * - isEmailAddressAvailable: boolean<br>
  * - validateFields: boolean<br>
  * - loadUserByUsername: UserPrincipal<br>
+ * - updatePassword: UserPrincipal<br>
  * <br>
  * Current code coverage: 100%<br>
  * Current branch coverage: 100%
@@ -57,7 +75,16 @@ public class UserServiceTest {
 	UserRepository mockRepo;
 
 	@Mock
-	BCryptPasswordEncoder mockEncoder;
+	PasswordHashingEngine mockEncoder;
+
+	@Mock
+	AvailabilityIndex mockIndex;
+
+	@Mock
+	ApplicationEventPublisher mockPublisher;
+
+	@Spy
+	RoleRegistry roleRegistry = new RoleRegistry(new String[] { "ROLE_USER", "ROLE_ADMIN" });
 
 	@InjectMocks
 	UserService userService;
@@ -76,14 +103,35 @@ public class UserServiceTest {
 
 	/**
 	 * Tests behavior of UserService.findAllUsers. The expected result is for the
-	 * method invoke the UserRepository.findAll method and returns a list of AppUser
-	 * objects.
+	 * method invoke the UserRepository.findAll method with the requested page and
+	 * return a page of AppUser objects.
 	 */
 	@Test
 	public void testFindAllUsers() {
-		List<AppUser> mockList = new ArrayList<>();
-		when(mockRepo.findAll()).thenReturn(mockList);
-		assertEquals(mockList, userService.findAllUsers());
+		Pageable pageable = PageRequest.of(0, 20);
+		Page<AppUser> mockPage = new PageImpl<>(new ArrayList<>());
+		when(mockRepo.findAll(pageable)).thenReturn(mockPage);
+		assertEquals(mockPage, userService.findAllUsers(pageable));
+	}
+
+	/**
+	 * Tests behavior of UserService.findUsersAfter. The expected result is for the
+	 * method to seek past the provided ID rather than skip over an offset.
+	 */
+	@Test
+	public void testFindUsersAfter() {
+		Slice<AppUser> mockSlice = new SliceImpl<>(new ArrayList<>());
+		when(mockRepo.findByIdGreaterThanOrderByIdAsc(100, PageRequest.of(0, 20))).thenReturn(mockSlice);
+		assertEquals(mockSlice, userService.findUsersAfter(100, 20));
+	}
+
+	/**
+	 * Tests behavior of UserService.findUsersAfter when provided a non-positive
+	 * size. The expected result is a BadRequestException being thrown.
+	 */
+	@Test(expected = BadRequestException.class)
+	public void testFindUsersAfterWithInvalidSize() {
+		userService.findUsersAfter(100, 0);
 	}
 
 	// --------------------------------------------------------------------------------------------------------------------
@@ -246,36 +294,59 @@ public class UserServiceTest {
 	@Test
 	public void testAddUserIfUserNotInDatabase() {
 		AppUser mockedUser = new AppUser(0, "Mocked", "User", "mocked@email.com", "mocked", "mocked", "USER");
-		when(mockRepo.save(mockedUser)).thenReturn(mockedUser);
+		when(mockRepo.saveAndFlush(mockedUser)).thenReturn(mockedUser);
 		assertEquals(mockedUser, userService.addUser(mockedUser));
 	}
 
+	/**
+	 * Tests behavior of UserService.addUser when passed a valid AppUser object. The
+	 * expected result is for the password to be hashed before the user is persisted.
+	 */
+	@Test
+	public void testAddUserHashesPassword() {
+		String encodedMockPw = "$2a$10$mlgYdMtrTQsFjbZAk0i.MeDUzVzaQgoMkGKRiT9DyN8Yrl99ZQeBC";
+		AppUser mockedUser = new AppUser(0, "Mocked", "User", "mocked@email.com", "mocked", "mocked", "USER");
+		when(mockEncoder.encode("mocked")).thenReturn(encodedMockPw);
+		when(mockRepo.saveAndFlush(mockedUser)).thenReturn(mockedUser);
+		assertEquals(encodedMockPw, userService.addUser(mockedUser).getPassword());
+	}
+
 	/**
 	 * Tests behavior of UserService.addUser when passed a valid AppUser object
 	 * whose provided username is already used within the data source. The expected
-	 * result is for the method to throw a UserCreationException and that the
-	 * UserRepository.save method is never invoked.
+	 * result is for the unique constraint violation raised by the insert to be
+	 * reported as a UserCreationException naming the username.
 	 */
-	@Test(expected = UserCreationException.class)
+	@Test
 	public void testAddUserIfUsernameAlreadyExists() {
 		AppUser mockedUser = new AppUser(0, "Mocked", "User", "mocked@email.com", "mocked", "mocked", "USER");
-		when(mockRepo.findUserByUsername("mocked")).thenReturn(new AppUser());
-		userService.addUser(mockedUser);
-		verify(mockRepo, times(0)).save(Mockito.any());
+		when(mockRepo.saveAndFlush(mockedUser)).thenThrow(new DataIntegrityViolationException("duplicate",
+				new ConstraintViolationException("duplicate", null, AppUser.UNIQUE_USERNAME + "_INDEX_C")));
+		try {
+			userService.addUser(mockedUser);
+			fail("Expected a UserCreationException");
+		} catch (UserCreationException uce) {
+			assertEquals("Username already in use", uce.getMessage());
+		}
 	}
 
 	/**
 	 * Tests behavior of UserService.addUser when passed a valid AppUser object
 	 * whose provided email is already used within the data source. The expected
-	 * result is for the method to throw a UserCreationException and that the
-	 * UserRepository.save method is never invoked.
+	 * result is for the unique constraint violation raised by the insert to be
+	 * reported as a UserCreationException naming the email address.
 	 */
-	@Test(expected = UserCreationException.class)
+	@Test
 	public void testAddUserIfEmailAlreadyExists() {
 		AppUser mockedUser = new AppUser(0, "Mocked", "User", "mocked@email.com", "mocked", "mocked", "USER");
-		when(mockRepo.findUserByEmail("mocked@email.com")).thenReturn(new AppUser());
-		userService.addUser(mockedUser);
-		verify(mockRepo, times(0)).save(Mockito.any());
+		when(mockRepo.saveAndFlush(mockedUser)).thenThrow(new DataIntegrityViolationException("duplicate",
+				new ConstraintViolationException("duplicate", null, AppUser.UNIQUE_EMAIL.toLowerCase())));
+		try {
+			userService.addUser(mockedUser);
+			fail("Expected a UserCreationException");
+		} catch (UserCreationException uce) {
+			assertEquals("Email address already in use", uce.getMessage());
+		}
 	}
 
 	/**
@@ -434,7 +505,7 @@ public class UserServiceTest {
 		AppUser persistedUser = requestingUser;
 		AppUser validMockUser = new AppUser(1, "Mocked", "User", "mocked@email.com", "new-mocked", "mocked", "USER");
 		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
-		when(mockRepo.findUserByUsername("new-mocked")).thenReturn(null);
+		when(mockRepo.existsByUsername("new-mocked")).thenReturn(false);
 		assertTrue(userService.updateUser(validMockUser, requestingUser));
 	}
 
@@ -447,10 +518,9 @@ public class UserServiceTest {
 		AppUser requestingUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
 		AppUser persistedUser = requestingUser;
 		AppUser validMockUser = new AppUser(1, "Mocked", "User", "mocked@email.com", "new-mocked", "mocked", "USER");
-		AppUser userWithUsername = new AppUser(2, "Existing", "User", "existing@email.com", "existing", "pw", "USER");
 
 		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
-		when(mockRepo.findUserByUsername(validMockUser.getUsername())).thenReturn(userWithUsername);
+		when(mockRepo.existsByUsername(validMockUser.getUsername())).thenReturn(true);
 		userService.updateUser(validMockUser, requestingUser);
 		verify(mockRepo, times(0)).save(Mockito.any());
 	}
@@ -465,7 +535,7 @@ public class UserServiceTest {
 		AppUser persistedUser = requestingUser;
 		AppUser validMockUser = new AppUser(1, "Mocked", "User", "new-mocked@email.com", "mocked", "mocked", "USER");
 		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
-		when(mockRepo.findUserByEmail("new-mocked@email.com")).thenReturn(null);
+		when(mockRepo.existsByEmail("new-mocked@email.com")).thenReturn(false);
 		assertTrue(userService.updateUser(validMockUser, requestingUser));
 	}
 
@@ -478,13 +548,51 @@ public class UserServiceTest {
 		AppUser requestingUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
 		AppUser persistedUser = requestingUser;
 		AppUser validMockUser = new AppUser(1, "Mocked", "User", "new-mocked@email.com", "mocked", "mocked", "USER");
-		AppUser userWithEmail = new AppUser(2, "Existing", "User", "new-mocked@email.com", "mocked", "mocked", "USER");
 		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
-		when(mockRepo.findUserByEmail("new-mocked@email.com")).thenReturn(userWithEmail);
+		when(mockRepo.existsByEmail("new-mocked@email.com")).thenReturn(true);
 		userService.updateUser(validMockUser, requestingUser);
 		verify(mockRepo, times(0)).save(Mockito.any());
 	}
 
+	/**
+	 * Tests UserService.updateUser when a valid user object is provided which only
+	 * changes the case of their username and email. The expected result is that
+	 * the user's own row is not reported as already in use.
+	 */
+	@Test
+	public void testUpdateUserValidChangingCaseOnly() {
+		AppUser requestingUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
+		AppUser persistedUser = requestingUser;
+		AppUser validMockUser = new AppUser(1, "Mocked", "User", "Mocked@Email.com", "MOCKED", "mocked", "USER");
+		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
+		assertTrue(userService.updateUser(validMockUser, requestingUser));
+		verify(mockRepo, times(1)).saveAndFlush(validMockUser);
+	}
+
+	/**
+	 * Tests UserService.updateUser when another user takes the new username
+	 * between the check and the update. The expected result is for the unique
+	 * constraint violation raised by the update to be reported as a
+	 * UserUpdateException naming the username, and no event to be published.
+	 */
+	@Test
+	public void testUpdateUserViolatingConstraint() {
+		AppUser requestingUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
+		AppUser persistedUser = requestingUser;
+		AppUser validMockUser = new AppUser(1, "Mocked", "User", "mocked@email.com", "new-mocked", "mocked", "USER");
+		when(mockRepo.findById(validMockUser.getId())).thenReturn(Optional.of(persistedUser));
+		when(mockRepo.existsByUsername("new-mocked")).thenReturn(false);
+		when(mockRepo.saveAndFlush(validMockUser)).thenThrow(new DataIntegrityViolationException("duplicate",
+				new ConstraintViolationException("duplicate", null, AppUser.UNIQUE_USERNAME)));
+		try {
+			userService.updateUser(validMockUser, requestingUser);
+			fail("Expected a UserUpdateException");
+		} catch (UserUpdateException uue) {
+			assertEquals("Username already in use", uue.getMessage());
+		}
+		verify(mockPublisher, times(0)).publishEvent(Mockito.any());
+	}
+
 	/**
 	 * Tests behavior of UserService.updateUser when passed an AppUser object whose
 	 * id does not match any records found in the data source. The requester must be
@@ -529,6 +637,9 @@ public class UserServiceTest {
 		when(mockRepo.findById(mockedUser.getId())).thenReturn(Optional.of(persistedUser));
 		boolean actualResult = userService.updateUser(mockedUser, requestingUser);
 		assertTrue(actualResult);
+		ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+		verify(mockPublisher, times(1)).publishEvent(event.capture());
+		assertEquals(UserChangeType.UPDATED, event.getValue().getType());
 	}
 
 	// --------------------------------------------------------------------------------------------------------------------
@@ -554,6 +665,10 @@ public class UserServiceTest {
 		AppUser mockedUser = new AppUser(1, "Mocked", "User", "mocked@email.com", "mocked", "mocked", "USER");
 		when(mockRepo.findById(1)).thenReturn(Optional.of(mockedUser));
 		assertTrue(userService.deleteUserById(1));
+		ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+		verify(mockPublisher, times(1)).publishEvent(event.capture());
+		assertEquals(UserChangeType.DELETED, event.getValue().getType());
+		assertEquals("mocked", event.getValue().getUsername());
 	}
 
 	/**
@@ -603,7 +718,8 @@ public class UserServiceTest {
 	@Test
 	public void testIsUsernameAvailableWhenAvailable() {
 		String availableUsername = "mocked";
-		when(mockRepo.findUserByUsername(availableUsername)).thenReturn(null);
+		when(mockIndex.mightContainUsername(availableUsername)).thenReturn(true);
+		when(mockRepo.existsByUsername(availableUsername)).thenReturn(false);
 		boolean actualResult = userService.isUsernameAvailable(availableUsername);
 		assertTrue(actualResult);
 	}
@@ -614,13 +730,36 @@ public class UserServiceTest {
 	 */
 	@Test
 	public void testIsUsernameAvailableWhenNotAvailable() {
-		AppUser persistedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
 		String unavailableUsername = "mocked";
-		when(mockRepo.findUserByUsername(unavailableUsername)).thenReturn(persistedUser);
+		when(mockIndex.mightContainUsername(unavailableUsername)).thenReturn(true);
+		when(mockRepo.existsByUsername(unavailableUsername)).thenReturn(true);
 		boolean actualResult = userService.isUsernameAvailable(unavailableUsername);
 		assertFalse(actualResult);
 	}
 
+	/**
+	 * Tests the behavior of UserService.isUsernameAvailable when the availability
+	 * index rules the username out. The expected result is for the method to return
+	 * true without querying the repository.
+	 */
+	@Test
+	public void testIsUsernameAvailableWhenFiltered() {
+		String availableUsername = "mocked";
+		when(mockIndex.mightContainUsername(availableUsername)).thenReturn(false);
+		assertTrue(userService.isUsernameAvailable(availableUsername));
+		verify(mockRepo, times(0)).existsByUsername(Mockito.any());
+	}
+
+	/**
+	 * Tests the behavior of UserService.isUsernameAvailable when an empty username
+	 * is provided. The expected result is a BadRequestException being thrown
+	 * without the repository being queried.
+	 */
+	@Test(expected = BadRequestException.class)
+	public void testIsUsernameAvailableWithEmptyUsername() {
+		userService.isUsernameAvailable("");
+	}
+
 	// --------------------------------------------------------------------------------------------------------------------
 
 	/*
@@ -640,7 +779,8 @@ public class UserServiceTest {
 	@Test
 	public void testIsEmailAvailableWhenAvailable() {
 		String availableEmail = "mocked@email.com";
-		when(mockRepo.findUserByEmail(availableEmail)).thenReturn(null);
+		when(mockIndex.mightContainEmail(availableEmail)).thenReturn(true);
+		when(mockRepo.existsByEmail(availableEmail)).thenReturn(false);
 		boolean actualResult = userService.isEmailAddressAvailable(availableEmail);
 		assertTrue(actualResult);
 	}
@@ -651,10 +791,10 @@ public class UserServiceTest {
 	 */
 	@Test
 	public void testIsEmailAvailableWhenNotAvailable() {
-		AppUser persistedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "mocked", "USER");
 		String unavailableEmail = "mocked@email.com";
-		when(mockRepo.findUserByUsername(unavailableEmail)).thenReturn(persistedUser);
-		boolean actualResult = userService.isUsernameAvailable(unavailableEmail);
+		when(mockIndex.mightContainEmail(unavailableEmail)).thenReturn(true);
+		when(mockRepo.existsByEmail(unavailableEmail)).thenReturn(true);
+		boolean actualResult = userService.isEmailAddressAvailable(unavailableEmail);
 		assertFalse(actualResult);
 	}
 
@@ -905,6 +1045,67 @@ public class UserServiceTest {
 		when(mockEncoder.encode(retrievedUser.getPassword())).thenReturn(encodedMockPw);
 		UserDetails result = userService.loadUserByUsername(username);
 		assertNotNull(result);
+		assertEquals(encodedMockPw, result.getPassword());
+		verify(mockRepo, times(1)).save(retrievedUser);
+	}
+
+	/**
+	 * Tests the behavior of UserService.loadUserByUsername when a known username
+	 * whose password has already been hashed is provided. The expected result is
+	 * for the stored hash to be returned without re-hashing or persisting it.
+	 */
+	@Test
+	public void testLoadUserByUsernameWithEncodedPassword() {
+		String encodedMockPw = "$2a$10$mlgYdMtrTQsFjbZAk0i.MeDUzVzaQgoMkGKRiT9DyN8Yrl99ZQeBC";
+		AppUser retrievedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", encodedMockPw, "USER");
+		String username = "valid-known";
+		when(mockRepo.findUserByUsername(username)).thenReturn(retrievedUser);
+		when(mockEncoder.isEncoded(encodedMockPw)).thenReturn(true);
+		UserDetails result = userService.loadUserByUsername(username);
+		assertEquals(encodedMockPw, result.getPassword());
+		verify(mockEncoder, times(0)).encode(Mockito.any());
+		verify(mockRepo, times(0)).save(Mockito.any());
+	}
+
+	// --------------------------------------------------------------------------------------------------------------------
+
+	/*
+	 * Below are the unit tests for the UserService.updatePassword method, whose
+	 * function is to persist a re-hashed password after a successful login with a
+	 * stale password hash.
+	 */
+
+	/**
+	 * Tests the behavior of UserService.updatePassword when a known user is
+	 * provided. The expected result is for the new hash to be persisted and
+	 * returned.
+	 */
+	@Test
+	public void testUpdatePasswordWithKnownUser() {
+		String newHash = "{bcrypt}$2a$12$mlgYdMtrTQsFjbZAk0i.MeDUzVzaQgoMkGKRiT9DyN8Yrl99ZQeBC";
+		AppUser retrievedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "stale", "USER");
+		when(mockRepo.findUserByUsername("mocked")).thenReturn(retrievedUser);
+		UserDetails user = userService.updatePassword(
+				new UserPrincipal(retrievedUser, "mocked", "stale", new ArrayList<>()), newHash);
+		assertEquals(newHash, user.getPassword());
+		assertEquals(newHash, retrievedUser.getPassword());
+		verify(mockRepo, times(1)).save(retrievedUser);
+		ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+		verify(mockPublisher, times(1)).publishEvent(event.capture());
+		assertEquals(UserChangeType.UPDATED, event.getValue().getType());
+		assertEquals("mocked", event.getValue().getUsername());
+	}
+
+	/**
+	 * Tests the behavior of UserService.updatePassword when the user no longer
+	 * exists. The expected result is for the method to throw a
+	 * UsernameNotFoundException.
+	 */
+	@Test(expected = UsernameNotFoundException.class)
+	public void testUpdatePasswordWithUnknownUser() {
+		AppUser retrievedUser = new AppUser(1, "mocked", "mocked", "mocked@email.com", "mocked", "stale", "USER");
+		when(mockRepo.findUserByUsername("mocked")).thenReturn(null);
+		userService.updatePassword(new UserPrincipal(retrievedUser, "mocked", "stale", new ArrayList<>()), "new");
 	}
 
 }
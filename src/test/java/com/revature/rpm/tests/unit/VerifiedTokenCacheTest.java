@@ -0,0 +1,88 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.util.VerifiedToken;
+import com.revature.rpm.security.util.VerifiedTokenCache;
+
+/**
+ * Test Suite for the VerifiedTokenCache class. Verifies that verified tokens are
+ * served until the time-to-live or their own expiration, whichever is sooner,
+ * and that only the exact token is served.
+ */
+public class VerifiedTokenCacheTest {
+
+	private static VerifiedToken verified(String username, long expiresAt) {
+		return new VerifiedToken(username, Collections.emptyList(), "id", 0, expiresAt);
+	}
+
+	/**
+	 * Tests that a cached token is served for the same token only. The expected
+	 * result is a hit for the token, and a miss for a token that differs in one
+	 * char.
+	 */
+	@Test
+	public void testGetServesExactToken() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		VerifiedToken token = verified("user", System.currentTimeMillis() + 60_000);
+		cache.put("a.b.c", token);
+
+		assertSame(token, cache.get("a.b.c"));
+		assertNull(cache.get("a.b.d"));
+	}
+
+	/**
+	 * Tests that a token with a char beyond ASCII whose low byte matches a cached
+	 * token (U+0161 and 'a') does not hit the cached token. The expected result is
+	 * a miss, and that such a token is never cached itself.
+	 */
+	@Test
+	public void testGetRejectsNonAsciiTokens() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		VerifiedToken token = verified("user", System.currentTimeMillis() + 60_000);
+		cache.put("a.b.c", token);
+
+		assertNull(cache.get("\u0161.b.c"));
+		cache.put("\u0161.b.c", token);
+		assertNull(cache.get("\u0161.b.c"));
+	}
+
+	/**
+	 * Tests that tokens are not served past the time-to-live or past their own
+	 * expiration. The expected result is a miss for both.
+	 */
+	@Test
+	public void testGetHonorsTtlAndExpiration() throws InterruptedException {
+		VerifiedTokenCache shortTtl = new VerifiedTokenCache(10, 20);
+		shortTtl.put("a.b.c", verified("user", System.currentTimeMillis() + 60_000));
+
+		VerifiedTokenCache longTtl = new VerifiedTokenCache(10, 60_000);
+		longTtl.put("a.b.c", verified("user", System.currentTimeMillis() + 20));
+
+		Thread.sleep(50);
+		assertNull(shortTtl.get("a.b.c"));
+		assertNull(longTtl.get("a.b.c"));
+	}
+
+	/**
+	 * Tests that the tokens of a user are removed regardless of the case of the
+	 * username. The expected result is that tokens of other users are kept.
+	 */
+	@Test
+	public void testInvalidateUser() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10, 60_000);
+		VerifiedToken other = verified("other", System.currentTimeMillis() + 60_000);
+		cache.put("a.b.c", verified("User", System.currentTimeMillis() + 60_000));
+		cache.put("d.e.f", other);
+
+		cache.invalidateUser("user");
+
+		assertNull(cache.get("a.b.c"));
+		assertSame(other, cache.get("d.e.f"));
+	}
+}
@@ -0,0 +1,105 @@
+package com.revature.rpm.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.revature.rpm.security.config.ZuulConfig;
+import com.revature.rpm.security.config.ZuulConfig.PreviousSecret;
+import com.revature.rpm.security.util.GatewayKeyring;
+
+/**
+ * Test Suite for the ZuulConfig class. Verifies that the accepted header
+ * digests are precomputed from the configured secrets, and that incomplete
+ * configuration is reported by property name.
+ */
+public class ZuulConfigTest {
+
+	/** The hex encoded SHA-512 digest of "zsalt" followed by "zsecret". */
+	private static final String DIGEST = "7e224f4a876e67ee34321b24f21355369c4f489f01c11e2e4c1385ea9eabf97f"
+			+ "a29f85422d8e0a736a7192eb11965d697741e34a864d38f6f143e4ed59298613";
+
+	private static ZuulConfig config(PreviousSecret... previous) {
+		ZuulConfig config = new ZuulConfig();
+		config.setSalt("zsalt");
+		config.setSecret("zsecret");
+		config.setPrevious(new ArrayList<>(Arrays.asList(previous)));
+		config.refreshKeyring();
+		return config;
+	}
+
+	private static PreviousSecret previous(String secret, String salt, String expiresAt) {
+		PreviousSecret previous = new PreviousSecret();
+		previous.setSecret(secret);
+		previous.setSalt(salt);
+		previous.setExpiresAt(expiresAt);
+		return previous;
+	}
+
+	/**
+	 * Tests that the digest of the current secret is computed once, as the
+	 * gateway computes it. The expected result is the salted SHA-512 digest, hex
+	 * encoded with leading zeros.
+	 */
+	@Test
+	public void testKeyringHoldsPrecomputedDigest() {
+		ZuulConfig config = config();
+
+		assertEquals(DIGEST, ZuulConfig.getHash("zsecret", "zsalt"));
+		assertEquals(DIGEST, config.getKeyring().getCurrent());
+		assertEquals(1, config.getKeyring().size());
+	}
+
+	/**
+	 * Tests that previous secrets are accepted until their expiry, with their own
+	 * salt or else the current one. The expected result is that the previous
+	 * digests match before, but not after, the expiry.
+	 */
+	@Test
+	public void testKeyringAcceptsPreviousSecretsUntilExpiry() {
+		GatewayKeyring keyring = config(previous("old", "oldsalt", "2030-01-01T00:00:00Z"),
+				previous("older", null, "2030-01-01T00:00:00Z")).getKeyring();
+		long expiry = Instant.parse("2030-01-01T00:00:00Z").toEpochMilli();
+
+		assertTrue(keyring.matches(ZuulConfig.getHash("old", "oldsalt"), expiry - 1));
+		assertTrue(keyring.matches(ZuulConfig.getHash("older", "zsalt"), expiry - 1));
+		assertFalse(keyring.matches(ZuulConfig.getHash("old", "oldsalt"), expiry));
+		assertTrue(keyring.matches(DIGEST, expiry));
+	}
+
+	/**
+	 * Tests that incomplete configuration fails with the name of the property.
+	 * The expected result is an IllegalStateException for a missing secret, a
+	 * previous secret without an expiry, and an unparseable expiry.
+	 */
+	@Test
+	public void testRefreshKeyringRejectsIncompleteConfiguration() {
+		assertRejected(new ZuulConfig(), "security.zsign.salt");
+		ZuulConfig missingExpiry = new ZuulConfig();
+		missingExpiry.setSalt("zsalt");
+		missingExpiry.setSecret("zsecret");
+		missingExpiry.setPrevious(Collections.singletonList(previous("old", null, null)));
+		assertRejected(missingExpiry, "security.zsign.previous[0].expires-at");
+		missingExpiry.setPrevious(Collections.singletonList(previous("old", null, "tomorrow")));
+		assertRejected(missingExpiry, "security.zsign.previous[0].expires-at");
+		missingExpiry.setPrevious(Collections.singletonList(previous(null, null, "2030-01-01T00:00:00Z")));
+		assertRejected(missingExpiry, "security.zsign.previous[0].secret");
+	}
+
+	private static void assertRejected(ZuulConfig config, String property) {
+		try {
+			config.refreshKeyring();
+			fail("Expected an IllegalStateException naming " + property);
+		} catch (IllegalStateException ise) {
+			assertTrue(ise.getMessage(), ise.getMessage().contains(property));
+		}
+	}
+}